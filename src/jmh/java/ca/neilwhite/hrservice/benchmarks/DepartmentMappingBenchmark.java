@@ -0,0 +1,124 @@
+package ca.neilwhite.hrservice.benchmarks;
+
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentRow;
+import ca.neilwhite.hrservice.models.Employee;
+import io.r2dbc.spi.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.r2dbc.core.ColumnMapRowMapper;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks mapping the rows of the Department join query, as done by {@code DepartmentRepositoryImpl} in
+ * {@code JOIN} fetch mode. Each operation maps a full synthetic result set of 100 Departments. The {@code mapBased}
+ * benchmarks run the same steps through {@link MapBasedDepartmentMapping}, including the column map {@code fetch()}
+ * builds per row, as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DepartmentMappingBenchmark {
+    private static final int DEPARTMENTS = 100;
+
+    @Param({"1", "10", "100", "1000"})
+    private int employeesPerDepartment;
+
+    private List<Row> rows;
+    private List<List<DepartmentRow>> groupedRows;
+    private List<List<Map<String, Object>>> groupedColumnMaps;
+
+    @Setup
+    public void setUp() {
+        this.rows = SyntheticRow.departmentRows(DEPARTMENTS, this.employeesPerDepartment);
+        this.groupedRows = Flux.fromIterable(this.rows)
+                .map(DepartmentRow::fromRow)
+                .bufferUntilChanged(DepartmentRow::id)
+                .collectList()
+                .block();
+        this.groupedColumnMaps = Flux.fromIterable(this.rows)
+                .map(DepartmentMappingBenchmark::toColumnMap)
+                .bufferUntilChanged(row -> row.get("d_id"))
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public void employeeFromRow(Blackhole blackhole) {
+        for (Row row : this.rows) {
+            blackhole.consume(Employee.fromRow(row, 7));
+        }
+    }
+
+    @Benchmark
+    public void departmentRowFromRow(Blackhole blackhole) {
+        for (Row row : this.rows) {
+            blackhole.consume(DepartmentRow.fromRow(row));
+        }
+    }
+
+    @Benchmark
+    public void departmentFromRows(Blackhole blackhole) {
+        for (List<DepartmentRow> departmentRows : this.groupedRows) {
+            blackhole.consume(Department.fromRows(departmentRows));
+        }
+    }
+
+    @Benchmark
+    public void bufferUntilChanged(Blackhole blackhole) {
+        Flux.fromIterable(this.rows)
+                .map(DepartmentRow::fromRow)
+                .bufferUntilChanged(DepartmentRow::id)
+                .map(Department::fromRows)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void mapBasedEmployeeFromRow(Blackhole blackhole) {
+        for (Row row : this.rows) {
+            blackhole.consume(MapBasedDepartmentMapping.employeeFromRow(toColumnMap(row)));
+        }
+    }
+
+    @Benchmark
+    public void mapBasedDepartmentFromRows(Blackhole blackhole) {
+        for (List<Map<String, Object>> departmentRows : this.groupedColumnMaps) {
+            blackhole.consume(MapBasedDepartmentMapping.departmentFromRows(departmentRows).block());
+        }
+    }
+
+    @Benchmark
+    public void mapBasedBufferUntilChanged(Blackhole blackhole) {
+        Flux.fromIterable(this.rows)
+                .map(DepartmentMappingBenchmark::toColumnMap)
+                .bufferUntilChanged(row -> row.get("d_id"))
+                .flatMap(MapBasedDepartmentMapping::departmentFromRows)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    /**
+     * Copies a row into a column map, as {@code DatabaseClient.fetch()} does.
+     */
+    private static Map<String, Object> toColumnMap(Row row) {
+        return ColumnMapRowMapper.INSTANCE.apply(row, row.getMetadata());
+    }
+}
@@ -0,0 +1,59 @@
+package ca.neilwhite.hrservice.benchmarks;
+
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.Employee;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The Department and Employee mapping used before rows were read by index: each row is first copied into a column
+ * map by {@code fetch()}, and IDs are parsed back from their string form. Kept as the baseline
+ * {@link DepartmentMappingBenchmark} compares against.
+ */
+final class MapBasedDepartmentMapping {
+    private MapBasedDepartmentMapping() {
+    }
+
+    static Mono<Department> departmentFromRows(List<Map<String, Object>> rows) {
+        return Mono.just(Department.builder()
+                .id((Long.parseLong(rows.get(0).get("d_id").toString())))
+                .name((String) rows.get(0).get("d_name"))
+                .manager(managerFromRow(rows.get(0)))
+                .employees(rows.stream()
+                        .map(MapBasedDepartmentMapping::employeeFromRow)
+                        .filter(Objects::nonNull)
+                        .toList())
+                .build());
+    }
+
+    static Employee employeeFromRow(Map<String, Object> row) {
+        if (row.get("e_id") != null) {
+            return Employee.builder()
+                    .id((Long.parseLong(row.get("e_id").toString())))
+                    .firstName((String) row.get("e_firstName"))
+                    .lastName((String) row.get("e_lastName"))
+                    .position((String) row.get("e_position"))
+                    .fullTime((Boolean) row.get("e_isFullTime"))
+                    .build();
+        } else {
+            return null;
+        }
+    }
+
+    static Employee managerFromRow(Map<String, Object> row) {
+        if (row.get("m_id") != null) {
+            return Employee.builder()
+                    .id((Long.parseLong(row.get("m_id").toString())))
+                    .firstName((String) row.get("m_firstName"))
+                    .lastName((String) row.get("m_lastName"))
+                    .position((String) row.get("m_position"))
+                    .fullTime((Boolean) row.get("m_isFullTime"))
+                    .build();
+        } else {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ca.neilwhite.hrservice.benchmarks;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * In-memory {@link Row} holding the column values of one result row, read by index or by column name.
+ */
+class SyntheticRow implements Row {
+    /**
+     * Columns of the Department join query, named with the aliases it used before rows were read by index.
+     */
+    private static final Metadata DEPARTMENT_METADATA = new Metadata(List.of(
+            new Column("d_id", R2dbcType.BIGINT),
+            new Column("d_name", R2dbcType.VARCHAR),
+            new Column("m_id", R2dbcType.BIGINT),
+            new Column("m_firstName", R2dbcType.VARCHAR),
+            new Column("m_lastName", R2dbcType.VARCHAR),
+            new Column("m_position", R2dbcType.VARCHAR),
+            new Column("m_isFullTime", R2dbcType.BOOLEAN),
+            new Column("e_id", R2dbcType.BIGINT),
+            new Column("e_firstName", R2dbcType.VARCHAR),
+            new Column("e_lastName", R2dbcType.VARCHAR),
+            new Column("e_position", R2dbcType.VARCHAR),
+            new Column("e_isFullTime", R2dbcType.BOOLEAN),
+            new Column("version", R2dbcType.BIGINT)));
+
+    private final Metadata metadata;
+    private final Object[] values;
+
+    SyntheticRow(Metadata metadata, Object... values) {
+        this.metadata = metadata;
+        this.values = values;
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        return type.cast(this.values[index]);
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return this.get(this.metadata.indexOf(name), type);
+    }
+
+    @Override
+    public RowMetadata getMetadata() {
+        return this.metadata;
+    }
+
+    /**
+     * Returns the rows of the Department join query: one row per employee of each Department, with a manager.
+     *
+     * @param departments            Number of Departments
+     * @param employeesPerDepartment Number of employees per Department
+     * @return Rows ordered by Department ID
+     */
+    static List<Row> departmentRows(int departments, int employeesPerDepartment) {
+        Row[] rows = new Row[departments * employeesPerDepartment];
+        long employeeId = departments;
+
+        for (int department = 0; department < departments; department++) {
+            for (int employee = 0; employee < employeesPerDepartment; employee++) {
+                employeeId++;
+                rows[department * employeesPerDepartment + employee] = new SyntheticRow(DEPARTMENT_METADATA,
+                        (long) department, "Department " + department,
+                        (long) department, "Manager", "" + department, "Director", true,
+                        employeeId, "Employee", "" + employeeId, "Developer", employeeId % 2 == 0, 0L);
+            }
+        }
+
+        return List.of(rows);
+    }
+
+    /**
+     * Column names and types shared by the rows of a result set. Names are matched case-insensitively, as drivers do.
+     */
+    record Metadata(List<Column> columns) implements RowMetadata {
+        int indexOf(String name) {
+            for (int index = 0; index < this.columns.size(); index++) {
+                if (this.columns.get(index).getName().equalsIgnoreCase(name)) {
+                    return index;
+                }
+            }
+            throw new NoSuchElementException(String.format("Unknown column. Name: %s", name));
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(int index) {
+            return this.columns.get(index);
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(String name) {
+            return this.columns.get(this.indexOf(name));
+        }
+
+        @Override
+        public List<? extends ColumnMetadata> getColumnMetadatas() {
+            return this.columns;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Collection<String> getColumnNames() {
+            return this.columns.stream().map(Column::getName).toList();
+        }
+    }
+
+    record Column(String name, Type type) implements ColumnMetadata {
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public Type getType() {
+            return this.type;
+        }
+    }
+}
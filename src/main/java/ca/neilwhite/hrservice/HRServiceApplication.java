@@ -1,8 +1,11 @@
 package ca.neilwhite.hrservice;
 
+import ca.neilwhite.hrservice.repositories.RepositoryProperties;
+import ca.neilwhite.hrservice.services.ChangeFeedProperties;
 import io.r2dbc.spi.ConnectionFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ClassPathResource;
@@ -10,9 +13,11 @@ import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
 import org.springframework.r2dbc.connection.init.CompositeDatabasePopulator;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.connection.init.ScriptUtils;
 
 @SpringBootApplication
 @EnableR2dbcRepositories
+@EnableConfigurationProperties({RepositoryProperties.class, ChangeFeedProperties.class})
 public class HRServiceApplication {
 
     public static void main(String[] args) {
@@ -29,8 +34,20 @@ public class HRServiceApplication {
         CompositeDatabasePopulator populator = new CompositeDatabasePopulator();
         populator.addPopulators(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")));
         populator.addPopulators(new ResourceDatabasePopulator(new ClassPathResource("data.sql")));
+        populator.addPopulators(triggerScript("notifications.sql"));
+        populator.addPopulators(triggerScript("versions.sql"));
         initializer.setDatabasePopulator(populator);
 
         return initializer;
     }
+
+    /**
+     * Returns a populator executing a script as a single statement, as its function bodies contain semicolons.
+     */
+    private static ResourceDatabasePopulator triggerScript(String path) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(path));
+        populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+
+        return populator;
+    }
 }
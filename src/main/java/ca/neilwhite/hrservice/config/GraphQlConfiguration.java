@@ -0,0 +1,25 @@
+package ca.neilwhite.hrservice.config;
+
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GraphQlConfiguration {
+    /**
+     * Deepest field nesting accepted. Departments and Employees reference each other, so without a limit a single
+     * query can nest them, and their batched loads, arbitrarily deep.
+     */
+    static final int MAX_QUERY_DEPTH = 5;
+
+    /**
+     * Returns the instrumentation rejecting queries nested deeper than {@value #MAX_QUERY_DEPTH} fields before they
+     * are executed.
+     *
+     * @return {@link MaxQueryDepthInstrumentation}
+     */
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation() {
+        return new MaxQueryDepthInstrumentation(MAX_QUERY_DEPTH);
+    }
+}
@@ -0,0 +1,78 @@
+package ca.neilwhite.hrservice.config;
+
+import ca.neilwhite.hrservice.repositories.CachingDepartmentRepository;
+import ca.neilwhite.hrservice.repositories.DepartmentRepositoryImpl;
+import ca.neilwhite.hrservice.services.ChangeFeedService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times service and Department repository methods returning a {@link Mono} or {@link Flux}, from subscription until
+ * the publisher terminates or is cancelled. Timers are tagged with the class, method and outcome, and publish
+ * percentile histograms. Spring Data repositories are timed by Spring Boot as
+ * {@code spring.data.repository.invocations}.
+ * <p>
+ * Only {@link DepartmentRepositoryImpl} is timed, so each query is recorded once; lookups served by
+ * {@link CachingDepartmentRepository} are counted by its {@code cache.gets} meters instead. The
+ * {@link ChangeFeedService} streams do not complete, so they are not timed.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class InvocationMetricsAspect {
+    private final MeterRegistry registry;
+
+    @Around("execution(public * ca.neilwhite.hrservice.services.*.*(..))"
+            + " && !within(ca.neilwhite.hrservice.services.ChangeFeedService)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return this.time("service.invocations", joinPoint);
+    }
+
+    @Around("execution(public * ca.neilwhite.hrservice.repositories.DepartmentRepositoryImpl.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return this.time("repository.invocations", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        String type = joinPoint.getTarget().getClass().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample sample = Timer.start(this.registry);
+                return mono.doFinally(signal -> sample.stop(this.timer(name, type, method, signal)));
+            });
+        }
+
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample sample = Timer.start(this.registry);
+                return flux.doFinally(signal -> sample.stop(this.timer(name, type, method, signal)));
+            });
+        }
+
+        return result;
+    }
+
+    private Timer timer(String name, String type, String method, SignalType signal) {
+        return Timer.builder(name)
+                .tag("class", type)
+                .tag("method", method)
+                .tag("outcome", switch (signal) {
+                    case ON_COMPLETE -> "success";
+                    case ON_ERROR -> "error";
+                    default -> "cancelled";
+                })
+                .publishPercentileHistogram()
+                .register(this.registry);
+    }
+}
@@ -0,0 +1,66 @@
+package ca.neilwhite.hrservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConnectionFactory} recording how long acquiring a connection from a {@link ConnectionPool} takes, as the
+ * {@code r2dbc.pool.acquire} timer tagged with the outcome. Pool size gauges are registered by Spring Boot, which
+ * finds the pool through {@link #unwrap()}.
+ */
+public class MeteredConnectionFactory implements ConnectionFactory, Wrapped<ConnectionPool> {
+    private final ConnectionPool pool;
+    private final Timer acquired;
+    private final Timer failed;
+
+    public MeteredConnectionFactory(ConnectionPool pool, MeterRegistry registry) {
+        this.pool = pool;
+        this.acquired = acquireTimer(registry, "success");
+        this.failed = acquireTimer(registry, "failure");
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+
+            return this.pool.create()
+                    .doOnSuccess(connection -> this.acquired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(error -> this.failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return this.pool.getMetadata();
+    }
+
+    @Override
+    public ConnectionPool unwrap() {
+        return this.pool;
+    }
+
+    /**
+     * Closes the pool and its connections.
+     */
+    public void dispose() {
+        this.pool.dispose();
+    }
+
+    private static Timer acquireTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("r2dbc.pool.acquire")
+                .description("Time taken to acquire a connection from the pool")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package ca.neilwhite.hrservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class R2dbcConfiguration {
+    /**
+     * Returns the application ConnectionFactory: a {@link ConnectionPool} configured from {@code spring.r2dbc.pool},
+     * timing every connection acquisition.
+     *
+     * @param properties {@link R2dbcProperties}
+     * @param registry   {@link MeterRegistry}
+     * @return {@link MeteredConnectionFactory}
+     */
+    @Bean(destroyMethod = "dispose")
+    public MeteredConnectionFactory connectionFactory(R2dbcProperties properties, MeterRegistry registry) {
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+
+        ConnectionFactoryBuilder connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl());
+        map.from(properties.getUsername()).whenHasText().to(connectionFactory::username);
+        map.from(properties.getPassword()).whenHasText().to(connectionFactory::password);
+
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory.build())
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize());
+
+        map.from(pool.getMaxIdleTime()).to(builder::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(builder::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(builder::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+        map.from(pool.getValidationQuery()).whenHasText().to(builder::validationQuery);
+        map.from(pool.getValidationDepth()).to(builder::validationDepth);
+
+        return new MeteredConnectionFactory(new ConnectionPool(builder.build()), registry);
+    }
+}
@@ -0,0 +1,39 @@
+package ca.neilwhite.hrservice.controllers;
+
+import ca.neilwhite.hrservice.models.ChangeEvent;
+import ca.neilwhite.hrservice.services.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/changes")
+public class ChangeController {
+    private static final Duration KEEP_ALIVE_INTERVAL = Duration.ofSeconds(15);
+
+    private final ChangeFeedService service;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChangeEvent>> getChanges(@RequestParam(required = false) String since,
+                                                         @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        Flux<ServerSentEvent<ChangeEvent>> changes = this.service.getChanges(since != null ? since : lastEventId)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.eventId())
+                        .event(event.entity().name().toLowerCase() + "." + event.type().name().toLowerCase())
+                        .build());
+
+        Flux<ServerSentEvent<ChangeEvent>> keepAlive = Flux.interval(KEEP_ALIVE_INTERVAL)
+                .map(tick -> ServerSentEvent.<ChangeEvent>builder().comment("keep-alive").build());
+
+        return Flux.merge(changes, keepAlive);
+    }
+}
@@ -1,8 +1,12 @@
 package ca.neilwhite.hrservice.controllers;
 
+import ca.neilwhite.hrservice.exceptions.ChangesUnavailableException;
 import ca.neilwhite.hrservice.exceptions.DepartmentAlreadyExistsException;
 import ca.neilwhite.hrservice.exceptions.DepartmentNotFoundException;
 import ca.neilwhite.hrservice.exceptions.EmployeeNotFoundException;
+import ca.neilwhite.hrservice.exceptions.UnknownFieldException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
@@ -11,12 +15,15 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
 
+import javax.validation.ConstraintViolationException;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ControllerExceptionHandler {
+    private final MeterRegistry registry;
 
     @ExceptionHandler({
             DepartmentNotFoundException.class,
@@ -24,15 +31,27 @@ public class ControllerExceptionHandler {
     })
     ResponseEntity<String> handleNotFound(RuntimeException exception) {
         log.debug("handling exception:: " + exception);
+        count(exception, HttpStatus.NOT_FOUND);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
     }
 
-    @ExceptionHandler({DepartmentAlreadyExistsException.class})
+    @ExceptionHandler({
+            DepartmentAlreadyExistsException.class,
+            UnknownFieldException.class
+    })
     ResponseEntity<String> handleBadRequest(RuntimeException exception) {
         log.debug("handling exception:: " + exception);
+        count(exception, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
     }
 
+    @ExceptionHandler(ChangesUnavailableException.class)
+    ResponseEntity<String> handleGone(RuntimeException exception) {
+        log.debug("handling exception:: " + exception);
+        count(exception, HttpStatus.GONE);
+        return ResponseEntity.status(HttpStatus.GONE).body(exception.getMessage());
+    }
+
     @ExceptionHandler(WebExchangeBindException.class)
     public ResponseEntity<List<String>> handleException(WebExchangeBindException e) {
         List<String> errors = e.getBindingResult()
@@ -40,6 +59,29 @@ public class ControllerExceptionHandler {
                 .stream()
                 .map(DefaultMessageSourceResolvable::getDefaultMessage)
                 .toList();
+        count(e, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<List<String>> handleException(ConstraintViolationException e) {
+        List<String> errors = e.getConstraintViolations()
+                .stream()
+                .map(violation -> String.format("%s %s", violation.getPropertyPath(), violation.getMessage()))
+                .toList();
+        count(e, HttpStatus.BAD_REQUEST);
         return ResponseEntity.badRequest().body(errors);
     }
+
+    /**
+     * Counts a handled exception by type and response status.
+     *
+     * @param exception Handled exception
+     * @param status    Response status
+     */
+    private void count(Exception exception, HttpStatus status) {
+        this.registry.counter("http.server.handled.exceptions",
+                "exception", exception.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
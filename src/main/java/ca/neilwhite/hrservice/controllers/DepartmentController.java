@@ -1,31 +1,75 @@
 package ca.neilwhite.hrservice.controllers;
 
 import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentStats;
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.OrgChartEntry;
 import ca.neilwhite.hrservice.models.requests.CreateDepartmentRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResponse;
+import ca.neilwhite.hrservice.models.responses.LookupResult;
 import ca.neilwhite.hrservice.services.DepartmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.util.List;
+import java.util.Map;
 
 @RestController
+@Validated
 @RequiredArgsConstructor
 @RequestMapping("/departments")
 public class DepartmentController {
+    private static final int MAX_LIMIT = 1000;
+
     private final DepartmentService service;
 
-    @GetMapping
-    public Flux<Department> getDepartments() {
-        return this.service.getDepartments();
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Department> getDepartments(@RequestParam(required = false) Long after, @RequestParam(required = false) @Min(1) @Max(MAX_LIMIT) Integer limit) {
+        return this.service.getDepartments(after, limit);
+    }
+
+    @GetMapping(params = {"fields", "!ids"}, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Map<String, Object>> getDepartmentFields(@RequestParam List<String> fields, @RequestParam(required = false) Long after,
+                                                         @RequestParam(required = false) @Min(1) @Max(MAX_LIMIT) Integer limit) {
+        return this.service.getDepartments(fields, after, limit);
+    }
+
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<LookupResult<Department>> getDepartmentsByIds(@RequestParam List<Long> ids) {
+        return this.service.getDepartmentsByIds(ids);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrgChartEntry> exportOrgChart() {
+        return this.service.exportOrgChart();
+    }
+
+    @GetMapping(value = "/export", produces = "text/csv")
+    public Flux<String> exportOrgChartCsv() {
+        return this.service.exportOrgChart()
+                .map(OrgChartEntry::toCsv)
+                .startWith(OrgChartEntry.CSV_HEADER);
+    }
+
+    @GetMapping("/stats")
+    public Flux<DepartmentStats> getDepartmentStats() {
+        return this.service.getDepartmentStats();
     }
 
     @GetMapping("/{id}")
-    public Mono<Department> getDepartment(@PathVariable Long id) {
-        return this.service.getDepartment(id);
+    public Mono<ResponseEntity<Department>> getDepartment(@PathVariable Long id, ServerWebExchange exchange) {
+        return ETags.conditionalGet(exchange, this.service.getDepartmentVersion(id),
+                () -> this.service.getDepartment(id), Department::getVersion);
     }
 
     @GetMapping("/{id}/employees")
@@ -33,12 +77,22 @@ public class DepartmentController {
         return this.service.getDepartmentEmployees(id, isFullTime);
     }
 
+    @GetMapping("/{id}/stats")
+    public Mono<DepartmentStats> getDepartmentStats(@PathVariable Long id) {
+        return this.service.getDepartmentStats(id);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<Department> createDepartment(@Valid @RequestBody CreateDepartmentRequest request) {
         return this.service.createDepartment(request);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkImportResponse> importDepartments(@RequestBody Flux<Department> departments) {
+        return this.service.importDepartments(departments);
+    }
+
     @PutMapping("/{id}")
     public Mono<Department> updateDepartment(@PathVariable Long id, @RequestBody Department department) {
         return this.service.updateDepartment(id, department);
@@ -0,0 +1,61 @@
+package ca.neilwhite.hrservice.controllers;
+
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.services.DepartmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the Department type of the GraphQL schema. Departments are loaded without members, and the managers and
+ * employees of all Departments in a selection are each loaded with one query.
+ */
+@Controller
+@RequiredArgsConstructor
+public class DepartmentGraphQlController {
+    private static final int MAX_LIMIT = 1000;
+
+    private final DepartmentService service;
+
+    @QueryMapping
+    public Flux<Department> departments(@Argument Long after, @Argument int limit) {
+        return this.service.getDepartmentsWithoutMembers(after, Math.max(0, Math.min(limit, MAX_LIMIT)));
+    }
+
+    @QueryMapping
+    public Mono<Department> department(@Argument Long id) {
+        return this.service.getDepartmentWithoutMembers(id);
+    }
+
+    @BatchMapping
+    public Mono<Map<Department, Employee>> manager(List<Department> departments) {
+        return this.service.getManagersByDepartmentIds(departments.stream().map(Department::getId).toList())
+                .map(managers -> {
+                    Map<Department, Employee> result = new LinkedHashMap<>();
+                    departments.stream()
+                            .filter(department -> managers.containsKey(department.getId()))
+                            .forEach(department -> result.put(department, managers.get(department.getId())));
+                    return result;
+                });
+    }
+
+    @BatchMapping
+    public Mono<Map<Department, List<Employee>>> employees(List<Department> departments) {
+        return this.service.getEmployeesByDepartmentIds(departments.stream().map(Department::getId).toList())
+                .map(employees -> {
+                    Map<Department, List<Employee>> result = new LinkedHashMap<>();
+                    departments.forEach(department -> result.put(department,
+                            List.copyOf(employees.getOrDefault(department.getId(), List.of()))));
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,32 @@
+package ca.neilwhite.hrservice.controllers;
+
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.requests.StreamDepartmentsRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResponse;
+import ca.neilwhite.hrservice.services.DepartmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+/**
+ * RSocket routes for Departments. Streams are read from a database cursor as the requester signals demand, so a slow
+ * consumer holds back the query rather than buffering the table.
+ */
+@Controller
+@RequiredArgsConstructor
+@MessageMapping("departments")
+public class DepartmentRSocketController {
+    private final DepartmentService service;
+
+    @MessageMapping("stream")
+    public Flux<Department> streamDepartments(@Payload(required = false) StreamDepartmentsRequest request) {
+        return this.service.getDepartments(request != null ? request.after() : null, null);
+    }
+
+    @MessageMapping("import")
+    public Flux<BulkImportResponse> importDepartments(Flux<Department> departments) {
+        return this.service.importDepartments(departments);
+    }
+}
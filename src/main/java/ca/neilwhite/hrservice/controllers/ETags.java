@@ -0,0 +1,45 @@
+package ca.neilwhite.hrservice.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET support using entity versions as strong ETags.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    /**
+     * Returns 304 Not Modified if the current version matches the request's {@code If-None-Match} header, without
+     * loading the entity. Otherwise loads the entity and returns it tagged with its own version, which may be newer
+     * than the one checked.
+     *
+     * @param exchange  {@link ServerWebExchange}
+     * @param version   Current version, or empty if the entity does not exist
+     * @param entity    Loads the entity
+     * @param versionOf Returns the version of a loaded entity
+     * @return Mono of {@link ResponseEntity}
+     */
+    static <T> Mono<ResponseEntity<T>> conditionalGet(ServerWebExchange exchange, Mono<Long> version,
+                                                      Supplier<Mono<T>> entity, Function<T, Long> versionOf) {
+        return version.map(ETags::of)
+                .filter(exchange::checkNotModified)
+                .map(eTag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<T>build())
+                .switchIfEmpty(Mono.defer(entity).map(body -> {
+                    Long current = versionOf.apply(body);
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+                    return current == null ? response.body(body) : response.eTag(of(current)).body(body);
+                }));
+    }
+
+    private static String of(long version) {
+        return String.format("\"%d\"", version);
+    }
+}
@@ -2,29 +2,62 @@ package ca.neilwhite.hrservice.controllers;
 
 import ca.neilwhite.hrservice.models.Employee;
 import ca.neilwhite.hrservice.models.requests.CreateEmployeeRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResponse;
+import ca.neilwhite.hrservice.models.responses.LookupResult;
 import ca.neilwhite.hrservice.services.EmployeeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.util.List;
+import java.util.Map;
 
 @RestController
+@Validated
 @RequiredArgsConstructor
 @RequestMapping("/employees")
 public class EmployeeController {
+    private static final int MAX_LIMIT = 1000;
+
     private final EmployeeService service;
 
-    @GetMapping
-    public Flux<Employee> getEmployees(@RequestParam(required = false) String position, @RequestParam(name = "fullTime", required = false) Boolean isFullTime) {
-        return this.service.getEmployees(position, isFullTime);
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Employee> getEmployees(@RequestParam(required = false) String position, @RequestParam(name = "fullTime", required = false) Boolean isFullTime,
+                                       @RequestParam(required = false) Long after, @RequestParam(required = false) @Min(1) @Max(MAX_LIMIT) Integer limit) {
+        return this.service.getEmployees(position, isFullTime, after, limit);
+    }
+
+    @GetMapping(params = {"fields", "!ids"}, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Map<String, Object>> getEmployeeFields(@RequestParam List<String> fields, @RequestParam(required = false) String position,
+                                                       @RequestParam(name = "fullTime", required = false) Boolean isFullTime,
+                                                       @RequestParam(required = false) Long after, @RequestParam(required = false) @Min(1) @Max(MAX_LIMIT) Integer limit) {
+        return this.service.getEmployees(fields, position, isFullTime, after, limit);
+    }
+
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<LookupResult<Employee>> getEmployeesByIds(@RequestParam List<Long> ids) {
+        return this.service.getEmployeesByIds(ids);
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Employee> searchEmployees(@RequestParam String q, @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_LIMIT) int limit,
+                                          @RequestParam(defaultValue = "0") @Min(0) long offset) {
+        return this.service.searchEmployees(q, limit, offset);
     }
 
     @GetMapping("/{id}")
-    public Mono<Employee> getEmployee(@PathVariable Long id) {
-        return this.service.getEmployee(id);
+    public Mono<ResponseEntity<Employee>> getEmployee(@PathVariable Long id, ServerWebExchange exchange) {
+        return ETags.conditionalGet(exchange, this.service.getEmployeeVersion(id),
+                () -> this.service.getEmployee(id), Employee::getVersion);
     }
 
     @PostMapping
@@ -33,6 +66,11 @@ public class EmployeeController {
         return this.service.createEmployee(request);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkImportResponse> importEmployees(@RequestBody Flux<CreateEmployeeRequest> requests) {
+        return this.service.importEmployees(requests);
+    }
+
     @PutMapping("/{id}")
     public Mono<Employee> updateEmployee(@PathVariable Long id, Employee employee) {
         return this.service.updateEmployee(id, employee);
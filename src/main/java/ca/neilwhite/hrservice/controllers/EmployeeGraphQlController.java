@@ -0,0 +1,55 @@
+package ca.neilwhite.hrservice.controllers;
+
+import ca.neilwhite.hrservice.exceptions.EmployeeNotFoundException;
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.services.DepartmentService;
+import ca.neilwhite.hrservice.services.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the Employee type of the GraphQL schema. The Departments of all Employees in a selection are loaded with
+ * one query.
+ */
+@Controller
+@RequiredArgsConstructor
+public class EmployeeGraphQlController {
+    private static final int MAX_LIMIT = 1000;
+
+    private final EmployeeService service;
+    private final DepartmentService departmentService;
+
+    @QueryMapping
+    public Flux<Employee> employees(@Argument String position, @Argument Boolean fullTime,
+                                    @Argument Long after, @Argument int limit) {
+        return this.service.getEmployees(position, fullTime, after, Math.max(0, Math.min(limit, MAX_LIMIT)));
+    }
+
+    @QueryMapping
+    public Mono<Employee> employee(@Argument Long id) {
+        return this.service.getEmployee(id)
+                .onErrorResume(EmployeeNotFoundException.class, e -> Mono.empty());
+    }
+
+    @BatchMapping
+    public Mono<Map<Employee, Department>> department(List<Employee> employees) {
+        return this.departmentService.getDepartmentsByMemberIds(employees.stream().map(Employee::getId).toList())
+                .map(departments -> {
+                    Map<Employee, Department> result = new LinkedHashMap<>();
+                    employees.stream()
+                            .filter(employee -> departments.containsKey(employee.getId()))
+                            .forEach(employee -> result.put(employee, departments.get(employee.getId())));
+                    return result;
+                });
+    }
+}
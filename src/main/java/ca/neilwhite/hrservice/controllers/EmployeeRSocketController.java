@@ -0,0 +1,35 @@
+package ca.neilwhite.hrservice.controllers;
+
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.requests.CreateEmployeeRequest;
+import ca.neilwhite.hrservice.models.requests.StreamEmployeesRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResponse;
+import ca.neilwhite.hrservice.services.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+/**
+ * RSocket routes for Employees. Streams are read from a database cursor as the requester signals demand, so a slow
+ * consumer holds back the query rather than buffering the table.
+ */
+@Controller
+@RequiredArgsConstructor
+@MessageMapping("employees")
+public class EmployeeRSocketController {
+    private final EmployeeService service;
+
+    @MessageMapping("stream")
+    public Flux<Employee> streamEmployees(@Payload(required = false) StreamEmployeesRequest request) {
+        StreamEmployeesRequest filters = request != null ? request : new StreamEmployeesRequest(null, null, null);
+
+        return this.service.getEmployees(filters.position(), filters.fullTime(), filters.after(), null);
+    }
+
+    @MessageMapping("import")
+    public Flux<BulkImportResponse> importEmployees(Flux<CreateEmployeeRequest> requests) {
+        return this.service.importEmployees(requests);
+    }
+}
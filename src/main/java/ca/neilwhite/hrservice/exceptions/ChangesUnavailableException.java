@@ -0,0 +1,7 @@
+package ca.neilwhite.hrservice.exceptions;
+
+public class ChangesUnavailableException extends RuntimeException {
+    public ChangesUnavailableException(String eventId) {
+        super(String.format("Changes no longer available. Last event ID: %s", eventId));
+    }
+}
@@ -2,6 +2,10 @@ package ca.neilwhite.hrservice.exceptions;
 
 public class DepartmentNotFoundException extends RuntimeException{
     public DepartmentNotFoundException(Long id) {
-        super(String.format("Department not found. Id: %d", id));
+        super(message(id));
+    }
+
+    public static String message(Long id) {
+        return String.format("Department not found. Id: %d", id);
     }
 }
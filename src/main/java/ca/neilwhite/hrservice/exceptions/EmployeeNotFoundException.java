@@ -2,6 +2,10 @@ package ca.neilwhite.hrservice.exceptions;
 
 public class EmployeeNotFoundException extends RuntimeException {
     public EmployeeNotFoundException(Long id) {
-        super(String.format("Employee not found. Id: %d", id));
+        super(message(id));
+    }
+
+    public static String message(Long id) {
+        return String.format("Employee not found. Id: %d", id);
     }
 }
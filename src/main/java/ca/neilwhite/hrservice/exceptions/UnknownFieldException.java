@@ -0,0 +1,7 @@
+package ca.neilwhite.hrservice.exceptions;
+
+public class UnknownFieldException extends RuntimeException {
+    public UnknownFieldException(String name) {
+        super(String.format("Unknown field. Name: %s", name));
+    }
+}
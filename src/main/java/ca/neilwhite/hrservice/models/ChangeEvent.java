@@ -0,0 +1,39 @@
+package ca.neilwhite.hrservice.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Change to an Employee or Department, numbered in publication order.
+ *
+ * @param epoch     Feed epoch, chosen when the process starts
+ * @param sequence  Sequence number within the epoch, increasing by one per event
+ * @param entity    Changed entity type
+ * @param type      Change type
+ * @param id        Changed entity ID
+ * @param timestamp Time the change was published
+ * @param data      Entity after the change, or null for deletions and when not available
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEvent(String epoch, long sequence, Entity entity, Type type, long id, Instant timestamp, Object data) {
+    /**
+     * Returns the ID subscribers resume after, unique across epochs.
+     *
+     * @return Event ID
+     */
+    public String eventId() {
+        return this.epoch + "-" + this.sequence;
+    }
+
+    public enum Entity {
+        EMPLOYEE,
+        DEPARTMENT
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -1,12 +1,14 @@
 package ca.neilwhite.hrservice.models;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Table;
-import reactor.core.publisher.Mono;
 
 import java.util.*;
 
@@ -24,19 +26,30 @@ public class Department {
     @Builder.Default
     private List<Employee> employees = new ArrayList<>();
 
+    /**
+     * Incremented by the database whenever the Department, its memberships or its members change.
+     */
+    @ReadOnlyProperty
+    @EqualsAndHashCode.Exclude
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
     public Optional<Employee> getManager(){
         return Optional.ofNullable(this.manager);
     }
 
-    public static Mono<Department> fromRows(List<Map<String, Object>> rows) {
-        return Mono.just(Department.builder()
-                .id((Long.parseLong(rows.get(0).get("d_id").toString())))
-                .name((String) rows.get(0).get("d_name"))
-                .manager(Employee.managerFromRow(rows.get(0)))
+    public static Department fromRows(List<DepartmentRow> rows) {
+        DepartmentRow first = rows.get(0);
+
+        return Department.builder()
+                .id(first.id())
+                .name(first.name())
+                .version(first.version())
+                .manager(first.manager())
                 .employees(rows.stream()
-                        .map(Employee::fromRow)
+                        .map(DepartmentRow::employee)
                         .filter(Objects::nonNull)
                         .toList())
-                .build());
+                .build();
     }
 }
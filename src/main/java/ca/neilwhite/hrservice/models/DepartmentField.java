@@ -0,0 +1,66 @@
+package ca.neilwhite.hrservice.models;
+
+import ca.neilwhite.hrservice.exceptions.UnknownFieldException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Department fields that can be requested with the {@code fields} query parameter.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DepartmentField {
+    ID("id", Department::getId),
+    NAME("name", Department::getName),
+    MANAGER("manager", department -> department.getManager().orElse(null)),
+    EMPLOYEES("employees", Department::getEmployees);
+
+    private final String property;
+    private final Function<Department, Object> getter;
+
+    /**
+     * Returns the fields with the given property names, or every field if none are given.
+     *
+     * @param properties Property names
+     * @return Set of {@link DepartmentField}
+     * @throws UnknownFieldException if a name is not a Department property
+     */
+    public static Set<DepartmentField> parse(Collection<String> properties) {
+        if (properties.isEmpty()) {
+            return EnumSet.allOf(DepartmentField.class);
+        }
+
+        Set<DepartmentField> fields = EnumSet.noneOf(DepartmentField.class);
+
+        for (String property : properties) {
+            fields.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new UnknownFieldException(property)));
+        }
+
+        return fields;
+    }
+
+    /**
+     * Returns the requested fields of a loaded Department, by property name.
+     *
+     * @param department {@link Department}
+     * @param fields     Requested fields
+     * @return Map of property name to value
+     */
+    public static Map<String, Object> project(Department department, Set<DepartmentField> fields) {
+        Map<String, Object> projection = new LinkedHashMap<>();
+        fields.forEach(field -> projection.put(field.property, field.getter.apply(department)));
+
+        return projection;
+    }
+}
@@ -0,0 +1,25 @@
+package ca.neilwhite.hrservice.models;
+
+import io.r2dbc.spi.Row;
+
+/**
+ * A row of the Department join query: the Department, its manager and one of its employees.
+ */
+public record DepartmentRow(Long id, String name, Long version, Employee manager, Employee employee) {
+
+    /**
+     * Maps a row selecting the Department id and name, followed by the manager and employee columns in the order
+     * expected by {@link Employee#fromRow(Row, int)}, then the Department version.
+     *
+     * @param row {@link Row}
+     * @return {@link DepartmentRow}
+     */
+    public static DepartmentRow fromRow(Row row) {
+        return new DepartmentRow(
+                row.get(0, Long.class),
+                row.get(1, String.class),
+                row.get(12, Long.class),
+                Employee.fromRow(row, 2),
+                Employee.fromRow(row, 7));
+    }
+}
@@ -0,0 +1,41 @@
+package ca.neilwhite.hrservice.models;
+
+import io.r2dbc.spi.Row;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Member counts of a Department, its manager included.
+ *
+ * @param departmentId   Department ID
+ * @param departmentName Department name
+ * @param headcount      Number of members
+ * @param fullTime       Number of full time members
+ * @param partTime       Number of part time members
+ * @param positions      Number of members per position, ordered by position
+ */
+public record DepartmentStats(long departmentId, String departmentName, long headcount, long fullTime, long partTime,
+                              Map<String, Long> positions) {
+    /**
+     * Returns DepartmentStats from a row of ID, name, headcount, full time count, and matching arrays of positions
+     * and their counts.
+     *
+     * @param row {@link Row}
+     * @return {@link DepartmentStats}
+     */
+    public static DepartmentStats fromRow(Row row) {
+        long headcount = row.get(2, Long.class);
+        long fullTime = row.get(3, Long.class);
+        String[] positions = row.get(4, String[].class);
+        Long[] counts = row.get(5, Long[].class);
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < positions.length; i++) {
+            histogram.put(positions[i], counts[i]);
+        }
+
+        return new DepartmentStats(row.get(0, Long.class), row.get(1, String.class), headcount, fullTime,
+                headcount - fullTime, histogram);
+    }
+}
@@ -1,14 +1,15 @@
 package ca.neilwhite.hrservice.models;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.r2dbc.spi.Row;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
-import java.util.Map;
-
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Table("employees")
@@ -22,29 +23,32 @@ public class Employee {
     @Column("is_full_time")
     private boolean fullTime;
 
-    public static Employee fromRow(Map<String, Object> row) {
-        if (row.get("e_id") != null) {
-            return Employee.builder()
-                    .id((Long.parseLong(row.get("e_id").toString())))
-                    .firstName((String) row.get("e_firstName"))
-                    .lastName((String) row.get("e_lastName"))
-                    .position((String) row.get("e_position"))
-                    .fullTime((Boolean) row.get("e_isFullTime"))
-                    .build();
-        } else {
-            return null;
-        }
+    /**
+     * Incremented by the database whenever the Employee changes. Not read by {@link #fromRow(Row, int)}.
+     */
+    @ReadOnlyProperty
+    @EqualsAndHashCode.Exclude
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
 
-    }
+    /**
+     * Maps the Employee columns of a row, read by index with their native types. The columns must be selected in the
+     * order id, first_name, last_name, position, is_full_time.
+     *
+     * @param row   {@link Row}
+     * @param index Index of the id column
+     * @return {@link Employee}, or null if the id column is null
+     */
+    public static Employee fromRow(Row row, int index) {
+        Long id = row.get(index, Long.class);
 
-    public static Employee managerFromRow(Map<String, Object> row) {
-        if (row.get("m_id") != null) {
+        if (id != null) {
             return Employee.builder()
-                    .id((Long.parseLong(row.get("m_id").toString())))
-                    .firstName((String) row.get("m_firstName"))
-                    .lastName((String) row.get("m_lastName"))
-                    .position((String) row.get("m_position"))
-                    .fullTime((Boolean) row.get("m_isFullTime"))
+                    .id(id)
+                    .firstName(row.get(index + 1, String.class))
+                    .lastName(row.get(index + 2, String.class))
+                    .position(row.get(index + 3, String.class))
+                    .fullTime(Boolean.TRUE.equals(row.get(index + 4, Boolean.class)))
                     .build();
         } else {
             return null;
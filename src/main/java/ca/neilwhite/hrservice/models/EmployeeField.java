@@ -0,0 +1,72 @@
+package ca.neilwhite.hrservice.models;
+
+import ca.neilwhite.hrservice.exceptions.UnknownFieldException;
+import io.r2dbc.spi.Row;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Employee fields that can be requested with the {@code fields} query parameter, with the column each is read from.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum EmployeeField {
+    ID("id", "id", Long.class),
+    FIRST_NAME("firstName", "first_name", String.class),
+    LAST_NAME("lastName", "last_name", String.class),
+    POSITION("position", "position", String.class),
+    FULL_TIME("fullTime", "is_full_time", Boolean.class);
+
+    private final String property;
+    private final String column;
+    private final Class<?> type;
+
+    /**
+     * Returns the fields with the given property names, or every field if none are given.
+     *
+     * @param properties Property names
+     * @return Set of {@link EmployeeField}
+     * @throws UnknownFieldException if a name is not an Employee property
+     */
+    public static Set<EmployeeField> parse(Collection<String> properties) {
+        if (properties.isEmpty()) {
+            return EnumSet.allOf(EmployeeField.class);
+        }
+
+        Set<EmployeeField> fields = EnumSet.noneOf(EmployeeField.class);
+
+        for (String property : properties) {
+            fields.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new UnknownFieldException(property)));
+        }
+
+        return fields;
+    }
+
+    /**
+     * Maps the selected columns of a row to their property names, read by index in field order.
+     *
+     * @param row    {@link Row}
+     * @param fields Selected fields, iterated in the order their columns were selected
+     * @return Map of property name to value
+     */
+    public static Map<String, Object> fromRow(Row row, Set<EmployeeField> fields) {
+        Map<String, Object> employee = new LinkedHashMap<>();
+        int index = 0;
+
+        for (EmployeeField field : fields) {
+            employee.put(field.property, row.get(index++, field.type));
+        }
+
+        return employee;
+    }
+}
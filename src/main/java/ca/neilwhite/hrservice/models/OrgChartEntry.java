@@ -0,0 +1,64 @@
+package ca.neilwhite.hrservice.models;
+
+import io.r2dbc.spi.Row;
+
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * One Department membership in the org chart: a Department and its manager or one of its employees. Departments
+ * without members have a single entry with no role or employee.
+ *
+ * @param departmentId   Department ID
+ * @param departmentName Department name
+ * @param role           MANAGER or EMPLOYEE, or null for a Department without members
+ * @param employeeId     Employee ID
+ * @param firstName      Employee first name
+ * @param lastName       Employee last name
+ * @param position       Employee position
+ * @param fullTime       Whether the Employee is full time
+ */
+public record OrgChartEntry(long departmentId, String departmentName, String role, Long employeeId, String firstName,
+                            String lastName, String position, Boolean fullTime) {
+    public static final String CSV_HEADER =
+            "department_id,department_name,role,employee_id,first_name,last_name,position,is_full_time\n";
+
+    /**
+     * Returns an OrgChartEntry from a row of columns in declaration order.
+     *
+     * @param row {@link Row}
+     * @return {@link OrgChartEntry}
+     */
+    public static OrgChartEntry fromRow(Row row) {
+        return new OrgChartEntry(
+                row.get(0, Long.class),
+                row.get(1, String.class),
+                row.get(2, String.class),
+                row.get(3, Long.class),
+                row.get(4, String.class),
+                row.get(5, String.class),
+                row.get(6, String.class),
+                row.get(7, Boolean.class));
+    }
+
+    /**
+     * Returns this entry as a CSV line, including the line break. Null values are written as empty fields.
+     *
+     * @return CSV line
+     */
+    public String toCsv() {
+        return Stream.of(this.departmentId, this.departmentName, this.role, this.employeeId, this.firstName,
+                        this.lastName, this.position, this.fullTime)
+                .map(value -> value == null ? "" : escape(Objects.toString(value)))
+                .collect(Collectors.joining(",", "", "\n"));
+    }
+
+    private static String escape(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        return value;
+    }
+}
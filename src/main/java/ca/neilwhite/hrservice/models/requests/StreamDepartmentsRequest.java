@@ -0,0 +1,9 @@
+package ca.neilwhite.hrservice.models.requests;
+
+/**
+ * Start of a Department stream.
+ *
+ * @param after Department ID to start after, or null to start from the first Department
+ */
+public record StreamDepartmentsRequest(Long after) {
+}
@@ -0,0 +1,11 @@
+package ca.neilwhite.hrservice.models.requests;
+
+/**
+ * Filters of an Employee stream. Every component is optional.
+ *
+ * @param position Employee Position, or null for any position
+ * @param fullTime Is Employee Full Time, or null for any status
+ * @param after    Employee ID to start after, or null to start from the first Employee
+ */
+public record StreamEmployeesRequest(String position, Boolean fullTime, Long after) {
+}
@@ -0,0 +1,11 @@
+package ca.neilwhite.hrservice.models.responses;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Line of a bulk import response: a {@link BulkImportResult} per record, followed by a {@link BulkImportSummary}.
+ * Lines are written as their own type, without a type property, and read back by the fields they carry.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.DEDUCTION)
+public sealed interface BulkImportResponse permits BulkImportResult, BulkImportSummary {
+}
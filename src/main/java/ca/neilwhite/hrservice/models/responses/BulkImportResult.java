@@ -0,0 +1,21 @@
+package ca.neilwhite.hrservice.models.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result of importing one record.
+ *
+ * @param index Zero-based position of the record in the request
+ * @param id    ID of the created entity, or null if the record failed
+ * @param error Reason the record failed, or null if it was imported
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkImportResult(long index, Long id, String error) implements BulkImportResponse {
+    public static BulkImportResult imported(long index, long id) {
+        return new BulkImportResult(index, id, null);
+    }
+
+    public static BulkImportResult failed(long index, String error) {
+        return new BulkImportResult(index, null, error);
+    }
+}
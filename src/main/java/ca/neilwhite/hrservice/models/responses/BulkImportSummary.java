@@ -0,0 +1,13 @@
+package ca.neilwhite.hrservice.models.responses;
+
+/**
+ * Totals of a bulk import.
+ *
+ * @param imported         Number of imported records
+ * @param failed           Number of failed records
+ * @param elapsedMillis    Time from the first record to the last result
+ * @param recordsPerSecond Records processed per second
+ */
+public record BulkImportSummary(long imported, long failed, long elapsedMillis,
+                                double recordsPerSecond) implements BulkImportResponse {
+}
@@ -0,0 +1,22 @@
+package ca.neilwhite.hrservice.models.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result of looking up one ID of a multi-get.
+ *
+ * @param id    Requested ID
+ * @param value Entity with the ID, or null if it does not exist
+ * @param error Reason the entity is missing, or null if it was found
+ * @param <T>   Entity type
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LookupResult<T>(long id, T value, String error) {
+    public static <T> LookupResult<T> found(long id, T value) {
+        return new LookupResult<>(id, value, null);
+    }
+
+    public static <T> LookupResult<T> missing(long id, String error) {
+        return new LookupResult<>(id, null, error);
+    }
+}
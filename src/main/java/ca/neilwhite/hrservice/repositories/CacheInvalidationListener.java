@@ -0,0 +1,99 @@
+package ca.neilwhite.hrservice.repositories;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Removes Departments from the {@link CachingDepartmentRepository} caches whenever a change to them, their
+ * memberships or their members is committed, by this or any other replica. The triggers in {@code notifications.sql}
+ * announce the ID of each affected Department on the {@value #CHANNEL} channel, which is listened to on a dedicated
+ * connection outside the pool. Postgres folds identical notifications within a transaction, so a bulk write announces
+ * each Department once.
+ * <p>
+ * Notifications sent while disconnected are lost, so the caches are cleared entirely each time the connection is
+ * (re)established, and whenever a payload is not a Department ID.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements SmartLifecycle {
+    static final String CHANNEL = "hr_service_changes";
+    private static final Duration MIN_RECONNECT_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    private final ConnectionFactory connectionFactory;
+    private final CachingDepartmentRepository cache;
+    private volatile Disposable subscription;
+
+    @Override
+    public void start() {
+        this.subscription = Flux.defer(this::listen)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_RECONNECT_DELAY).maxBackoff(MAX_RECONNECT_DELAY))
+                .repeatWhen(closed -> closed.delayElements(MIN_RECONNECT_DELAY))
+                .subscribe(this::invalidate);
+    }
+
+    @Override
+    public void stop() {
+        Disposable subscription = this.subscription;
+
+        if (subscription != null) {
+            subscription.dispose();
+            this.subscription = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.subscription != null;
+    }
+
+    /**
+     * Opens a connection, listens on {@value #CHANNEL} and returns the notifications until the connection closes.
+     */
+    private Flux<Notification> listen() {
+        return Flux.usingWhen(
+                Mono.from(unpooled(this.connectionFactory).create()).cast(PostgresqlConnection.class),
+                connection -> connection.createStatement("LISTEN " + CHANNEL)
+                        .execute()
+                        .flatMap(PostgresqlResult::getRowsUpdated)
+                        .then(Mono.fromRunnable(this.cache::invalidateAll))
+                        .thenMany(connection.getNotifications()),
+                Connection::close);
+    }
+
+    /**
+     * Removes the Department announced by a notification from the caches.
+     */
+    private void invalidate(Notification notification) {
+        try {
+            this.cache.invalidate(Long.parseLong(String.valueOf(notification.getParameter())));
+        } catch (NumberFormatException e) {
+            this.cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Returns the ConnectionFactory wrapped by any pools, so the listening connection is not borrowed from them.
+     */
+    private static ConnectionFactory unpooled(ConnectionFactory connectionFactory) {
+        while (connectionFactory instanceof Wrapped<?> wrapped
+                && wrapped.unwrap() instanceof ConnectionFactory delegate) {
+            connectionFactory = delegate;
+        }
+
+        return connectionFactory;
+    }
+}
@@ -0,0 +1,304 @@
+package ca.neilwhite.hrservice.repositories;
+
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentField;
+import ca.neilwhite.hrservice.models.DepartmentStats;
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.OrgChartEntry;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * {@link DepartmentRepository} caching Departments by ID and by name in front of {@link DepartmentRepositoryImpl}.
+ * Concurrent lookups of the same key share one query. Missing Departments and failed loads are not cached.
+ * <p>
+ * Saving or deleting a Department can move Employees between Departments, so both caches are cleared before the
+ * write starts and again once it completes. Writes made elsewhere, such as by Employee updates or other replicas, are
+ * announced by Postgres and applied by {@link CacheInvalidationListener}. Cached Departments are shared between
+ * callers and must not be modified. The name each cached Department was looked up by is kept by ID, so a
+ * notification for one Department removes only its entries.
+ * <p>
+ * A load that is in flight while the caches are cleared may have read a Department as it was before the write. Every
+ * clear advances a generation. A load that completes in a later generation than the one it started in is still
+ * returned to its callers, but it is removed from the cache rather than kept for the full TTL. The only remaining
+ * window is between such a load completing and its removal. A lookup arriving in that window can receive the stale
+ * Department, but it is not cached beyond it.
+ * <p>
+ * A load runs with the Reactor {@link reactor.util.context.Context} of the lookup that started it. Lookups joining a
+ * pending load receive its result, but their own Context does not reach it.
+ */
+@Primary
+@Component
+public class CachingDepartmentRepository implements DepartmentRepository {
+    private final DepartmentRepositoryImpl delegate;
+    private final AsyncCache<Long, Department> byId;
+    private final AsyncCache<String, Department> byName;
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingDepartmentRepository(DepartmentRepositoryImpl delegate, RepositoryProperties properties,
+                                       MeterRegistry registry) {
+        this.delegate = delegate;
+        this.byId = buildCache(properties.getCache()).buildAsync();
+        this.byName = buildCache(properties.getCache())
+                .<String, Department>removalListener((name, department, cause) -> {
+                    if (department != null) {
+                        this.namesById.remove(department.getId(), name);
+                    }
+                })
+                .executor(Runnable::run)
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(registry, this.byId.synchronous(), "departments.id");
+        CaffeineCacheMetrics.monitor(registry, this.byName.synchronous(), "departments.name");
+    }
+
+    @Override
+    public Flux<Department> findAll() {
+        return this.delegate.findAll();
+    }
+
+    @Override
+    public Flux<Department> findAll(Long after, Integer limit) {
+        return this.delegate.findAll(after, limit);
+    }
+
+    @Override
+    public Flux<Map<String, Object>> findAll(Set<DepartmentField> fields, Long after, Integer limit) {
+        return this.delegate.findAll(fields, after, limit);
+    }
+
+    /**
+     * Returns a cached Department by ID, loading it on a miss.
+     *
+     * @param id Department ID
+     * @return Mono of {@link Department}
+     */
+    @Override
+    public Mono<Department> findById(long id) {
+        return this.get(this.byId, id, this.delegate::findById);
+    }
+
+    /**
+     * Returns cached Departments by ID, loading all misses with one query.
+     *
+     * @param ids Department IDs
+     * @return Flux of {@link Department}
+     */
+    @Override
+    public Flux<Department> findAllByIds(Collection<Long> ids) {
+        return Mono.deferContextual(context -> {
+                    long generation = this.generation.get();
+                    CompletableFuture<Map<Long, Department>> future = this.byId.getAll(ids, (missing, executor) -> {
+                        List<Long> keys = new ArrayList<>();
+                        missing.forEach(keys::add);
+                        return this.delegate.findAllByIds(keys)
+                                .collectMap(Department::getId)
+                                .contextWrite(context)
+                                .toFuture();
+                    });
+                    future.whenComplete((departments, error) -> {
+                        if (this.generation.get() != generation) {
+                            this.byId.synchronous().invalidateAll(ids);
+                        }
+                    });
+                    return Mono.fromFuture(future.copy());
+                })
+                .flatMapIterable(Map::values);
+    }
+
+    @Override
+    public Flux<Department> findAllWithoutMembers(Long after, Integer limit) {
+        return this.delegate.findAllWithoutMembers(after, limit);
+    }
+
+    @Override
+    public Flux<Department> findAllWithoutMembersByIds(Collection<Long> ids) {
+        return this.delegate.findAllWithoutMembersByIds(ids);
+    }
+
+    @Override
+    public Mono<Map<Long, Employee>> findManagersByDepartmentIds(Collection<Long> ids) {
+        return this.delegate.findManagersByDepartmentIds(ids);
+    }
+
+    @Override
+    public Mono<Map<Long, Collection<Employee>>> findEmployeesByDepartmentIds(Collection<Long> ids) {
+        return this.delegate.findEmployeesByDepartmentIds(ids);
+    }
+
+    @Override
+    public Mono<Map<Long, Department>> findAllWithoutMembersByMemberIds(Collection<Long> employeeIds) {
+        return this.delegate.findAllWithoutMembersByMemberIds(employeeIds);
+    }
+
+    /**
+     * Returns a cached Department by name, loading it on a miss.
+     *
+     * @param name Department name
+     * @return Mono of {@link Department}
+     */
+    @Override
+    public Mono<Department> findByName(String name) {
+        return this.get(this.byName, name, key -> this.delegate.findByName(key)
+                .doOnNext(department -> this.namesById.put(department.getId(), key)));
+    }
+
+    @Override
+    public Flux<Employee> findDepartmentEmployees(long id, Boolean isFullTime) {
+        return this.delegate.findDepartmentEmployees(id, isFullTime);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(long id) {
+        return this.delegate.existsById(id);
+    }
+
+    @Override
+    public Mono<Long> findVersion(long id) {
+        return this.delegate.findVersion(id);
+    }
+
+    @Override
+    public Flux<OrgChartEntry> exportOrgChart() {
+        return this.delegate.exportOrgChart();
+    }
+
+    @Override
+    public Flux<DepartmentStats> findStats() {
+        return this.delegate.findStats();
+    }
+
+    @Override
+    public Mono<DepartmentStats> findStats(long id) {
+        return this.delegate.findStats(id);
+    }
+
+    /**
+     * Saves and returns a Department, clearing the caches before and after.
+     *
+     * @param department {@link Department}
+     * @return Mono of {@link Department}
+     */
+    @Override
+    public Mono<Department> save(Department department) {
+        return Mono.defer(() -> {
+                    this.invalidateAll();
+                    return this.delegate.save(department);
+                })
+                .doOnSuccess(saved -> this.invalidateAll());
+    }
+
+    /**
+     * Updates and returns a Department, clearing the caches before and after.
+     *
+     * @param department {@link Department}
+     * @return Mono of {@link Department}
+     */
+    @Override
+    public Mono<Department> update(Department department) {
+        return Mono.defer(() -> {
+                    this.invalidateAll();
+                    return this.delegate.update(department);
+                })
+                .doOnSuccess(updated -> this.invalidateAll());
+    }
+
+    /**
+     * Inserts Departments, clearing the caches before and after.
+     *
+     * @param departments Departments without IDs
+     * @return Flux of the inserted {@link Department}
+     */
+    @Override
+    public Flux<Department> insertAll(List<Department> departments) {
+        return Flux.defer(() -> {
+                    this.invalidateAll();
+                    return this.delegate.insertAll(departments);
+                })
+                .doOnComplete(this::invalidateAll);
+    }
+
+    /**
+     * Deletes a Department, clearing the caches before and after.
+     *
+     * @param department {@link Department}
+     * @return Mono of {@link Void}
+     */
+    @Override
+    public Mono<Void> delete(Department department) {
+        return Mono.defer(() -> {
+                    this.invalidateAll();
+                    return this.delegate.delete(department);
+                })
+                .doOnSuccess(unused -> this.invalidateAll());
+    }
+
+    /**
+     * Advances the generation and removes a Department from both caches. Loads still in flight for other keys are not
+     * kept either, as the generation is shared.
+     *
+     * @param id Department ID
+     */
+    public void invalidate(long id) {
+        this.generation.incrementAndGet();
+        this.byId.synchronous().invalidate(id);
+
+        String name = this.namesById.remove(id);
+        if (name != null) {
+            this.byName.synchronous().invalidate(name);
+        }
+    }
+
+    /**
+     * Advances the generation and clears both caches.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.byId.synchronous().invalidateAll();
+        this.byName.synchronous().invalidateAll();
+    }
+
+    /**
+     * Returns the cached value of a key, loading it with a Mono on a miss. Subscribers receive a copy of the shared
+     * future, so cancelling one subscription does not cancel the load for the others. If the caches are cleared
+     * before the load completes, the loaded value is removed from the cache once it completes.
+     */
+    private <K> Mono<Department> get(AsyncCache<K, Department> cache, K key, Function<K, Mono<Department>> loader) {
+        return Mono.deferContextual(context -> {
+            long generation = this.generation.get();
+            CompletableFuture<Department> future = cache.get(key, (k, executor) -> loader.apply(k)
+                    .contextWrite(context)
+                    .toFuture());
+            future.whenComplete((department, error) -> {
+                if (this.generation.get() != generation) {
+                    cache.asMap().remove(key, future);
+                }
+            });
+            return Mono.fromFuture(future.copy());
+        });
+    }
+
+    private static Caffeine<Object, Object> buildCache(RepositoryProperties.Cache properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats();
+    }
+}
@@ -1,19 +1,60 @@
 package ca.neilwhite.hrservice.repositories;
 
 import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentField;
+import ca.neilwhite.hrservice.models.DepartmentStats;
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.OrgChartEntry;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Component
 public interface DepartmentRepository {
     Flux<Department> findAll();
 
+    Flux<Department> findAll(Long after, Integer limit);
+
+    Flux<Map<String, Object>> findAll(Set<DepartmentField> fields, Long after, Integer limit);
+
     Mono<Department> findById(long id);
 
+    Flux<Department> findAllByIds(Collection<Long> ids);
+
+    Flux<Department> findAllWithoutMembers(Long after, Integer limit);
+
+    Flux<Department> findAllWithoutMembersByIds(Collection<Long> ids);
+
+    Mono<Map<Long, Employee>> findManagersByDepartmentIds(Collection<Long> ids);
+
+    Mono<Map<Long, Collection<Employee>>> findEmployeesByDepartmentIds(Collection<Long> ids);
+
+    Mono<Map<Long, Department>> findAllWithoutMembersByMemberIds(Collection<Long> employeeIds);
+
     Mono<Department> findByName(String name);
 
+    Flux<Employee> findDepartmentEmployees(long id, Boolean isFullTime);
+
+    Mono<Boolean> existsById(long id);
+
+    Mono<Long> findVersion(long id);
+
+    Flux<OrgChartEntry> exportOrgChart();
+
+    Flux<DepartmentStats> findStats();
+
+    Mono<DepartmentStats> findStats(long id);
+
     Mono<Department> save(Department department);
 
+    Mono<Department> update(Department department);
+
+    Flux<Department> insertAll(List<Department> departments);
+
     Mono<Void> delete(Department department);
 }
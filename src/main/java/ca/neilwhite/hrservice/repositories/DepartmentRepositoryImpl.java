@@ -1,31 +1,113 @@
 package ca.neilwhite.hrservice.repositories;
 
 import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentField;
+import ca.neilwhite.hrservice.models.DepartmentRow;
+import ca.neilwhite.hrservice.models.DepartmentStats;
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.OrgChartEntry;
+import ca.neilwhite.hrservice.repositories.RepositoryProperties.FetchMode;
+import io.r2dbc.spi.Row;
 import lombok.RequiredArgsConstructor;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
 public class DepartmentRepositoryImpl implements DepartmentRepository {
     private final EmployeeRepository employeeRepository;
     private final DatabaseClient client;
+    private final RepositoryProperties properties;
     private static final String SELECT_QUERY = """
-            SELECT d.id d_id, d.name d_name, m.id m_id, m.first_name m_firstName, m.last_name m_lastName,
-                m.position m_position, m.is_full_time m_isFullTime, e.id e_id, e.first_name e_firstName,
-                e.last_name e_lastName, e.position e_position, e.is_full_time e_isFullTime
+            SELECT d.id, d.name, m.id, m.first_name, m.last_name, m.position, m.is_full_time,
+                e.id, e.first_name, e.last_name, e.position, e.is_full_time, d.version
             FROM departments d
             LEFT JOIN department_managers dm ON dm.department_id = d.id
             LEFT JOIN employees m ON m.id = dm.employee_id
             LEFT JOIN department_employees de ON de.department_id = d.id
             LEFT JOIN employees e ON e.id = de.employee_id
             """;
+    private static final String UPDATE_QUERY = """
+            WITH d AS (UPDATE departments SET name = :name WHERE id = :id RETURNING id)
+            SELECT m.id, m.first_name, m.last_name, m.position, m.is_full_time,
+                ARRAY(SELECT de.employee_id FROM department_employees de WHERE de.department_id = d.id)
+            FROM d
+            LEFT JOIN department_managers dm ON dm.department_id = d.id
+            LEFT JOIN employees m ON m.id = dm.employee_id
+            """;
+    /**
+     * Counts members per Department and position, then rolls the positions up per Department, so each Department
+     * takes one row. Formatted with the member and Department filters.
+     */
+    private static final String STATS_QUERY = """
+            WITH p AS (
+                SELECT m.department_id, e.position, count(*) AS total, count(*) FILTER (WHERE e.is_full_time) AS full_time
+                FROM (
+                    SELECT department_id, employee_id FROM department_managers
+                    UNION ALL
+                    SELECT department_id, employee_id FROM department_employees
+                ) m
+                JOIN employees e ON e.id = m.employee_id
+                %s
+                GROUP BY m.department_id, e.position
+            )
+            SELECT d.id, d.name, coalesce(sum(p.total), 0)::bigint, coalesce(sum(p.full_time), 0)::bigint,
+                coalesce(array_agg(p.position ORDER BY p.position) FILTER (WHERE p.position IS NOT NULL), '{}'),
+                coalesce(array_agg(p.total ORDER BY p.position) FILTER (WHERE p.position IS NOT NULL), '{}')
+            FROM departments d
+            LEFT JOIN p ON p.department_id = d.id
+            %s
+            GROUP BY d.id, d.name
+            ORDER BY d.id
+            """;
+    private static final String DEPARTMENT_QUERY = "SELECT d.id, d.name, d.version FROM departments d";
+    private static final String MANAGER_QUERY = """
+            SELECT dm.department_id, m.id, m.first_name, m.last_name, m.position, m.is_full_time
+            FROM department_managers dm
+            JOIN employees m ON m.id = dm.employee_id
+            WHERE dm.department_id = ANY(:ids)
+            """;
+    static final String EMPLOYEE_QUERY = """
+            SELECT de.department_id, e.id, e.first_name, e.last_name, e.position, e.is_full_time
+            FROM department_employees de
+            JOIN employees e ON e.id = de.employee_id
+            WHERE de.department_id = ANY(:ids)
+            ORDER BY de.department_id, e.id
+            """;
+    static final String DEPARTMENT_EMPLOYEES_QUERY = """
+            SELECT e.id, e.first_name, e.last_name, e.position, e.is_full_time
+            FROM department_employees de
+            JOIN employees e ON e.id = de.employee_id
+            WHERE de.department_id = :id %s
+            ORDER BY e.id
+            """;
+    private static final String MEMBER_DEPARTMENT_QUERY = """
+            SELECT DISTINCT ON (m.employee_id) m.employee_id, d.id, d.name, d.version
+            FROM (
+                SELECT department_id, employee_id, 0 AS role FROM department_employees WHERE employee_id = ANY(:ids)
+                UNION ALL
+                SELECT department_id, employee_id, 1 AS role FROM department_managers WHERE employee_id = ANY(:ids)
+            ) m
+            JOIN departments d ON d.id = m.department_id
+            ORDER BY m.employee_id, m.role
+            """;
 
     /**
      * Returns all Departments.
@@ -34,13 +116,67 @@ public class DepartmentRepositoryImpl implements DepartmentRepository {
      */
     @Override
     public Flux<Department> findAll() {
-        String query = String.format("%s ORDER BY d.id", SELECT_QUERY);
+        return this.fetch("ORDER BY d.id", spec -> spec);
+    }
 
-        return client.sql(query)
-                .fetch()
-                .all()
-                .bufferUntilChanged(result -> result.get("d_id"))
-                .flatMap(Department::fromRows);
+    /**
+     * Returns Departments ordered by ID, starting after a Department ID.
+     *
+     * @param after Department ID to start after, or null to start from the first Department
+     * @param limit Maximum number of Departments, or null for no limit
+     * @return Flux of {@link Department}
+     */
+    @Override
+    public Flux<Department> findAll(Long after, Integer limit) {
+        String clause = String.format("WHERE d.id IN (SELECT id FROM departments WHERE id > :after ORDER BY id%s) ORDER BY d.id",
+                limit == null ? "" : " LIMIT :limit");
+
+        return this.fetch(clause, spec -> {
+            DatabaseClient.GenericExecuteSpec bound = spec.bind("after", after == null ? 0L : after);
+            return limit == null ? bound : bound.bind("limit", limit);
+        });
+    }
+
+    /**
+     * Returns the requested fields of Departments ordered by ID, starting after a Department ID. Departments are
+     * loaded in full when employees are requested. Otherwise only the requested columns are selected, and managers
+     * are joined only when requested.
+     *
+     * @param fields Requested fields
+     * @param after  Department ID to start after, or null to start from the first Department
+     * @param limit  Maximum number of Departments, or null for no limit
+     * @return Flux of the requested fields by property name
+     */
+    @Override
+    public Flux<Map<String, Object>> findAll(Set<DepartmentField> fields, Long after, Integer limit) {
+        if (fields.contains(DepartmentField.EMPLOYEES)) {
+            return this.findAll(after, limit)
+                    .map(department -> DepartmentField.project(department, fields));
+        }
+
+        String columns = fields.stream()
+                .map(field -> switch (field) {
+                    case ID -> "d.id";
+                    case NAME -> "d.name";
+                    default -> "m.id, m.first_name, m.last_name, m.position, m.is_full_time";
+                })
+                .collect(Collectors.joining(", "));
+        String joins = fields.contains(DepartmentField.MANAGER) ? """
+                LEFT JOIN department_managers dm ON dm.department_id = d.id
+                LEFT JOIN employees m ON m.id = dm.employee_id
+                """ : "";
+        String query = String.format("SELECT %s FROM departments d %s WHERE d.id > :after ORDER BY d.id%s",
+                columns, joins, limit == null ? "" : " LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(query).bind("after", after == null ? 0L : after);
+
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+
+        return spec.filter(statement -> statement.fetchSize(this.properties.getFetchSize()))
+                .map((row, metadata) -> projectionFromRow(row, fields))
+                .all();
     }
 
     /**
@@ -51,15 +187,104 @@ public class DepartmentRepositoryImpl implements DepartmentRepository {
      */
     @Override
     public Mono<Department> findById(long id) {
-        String query = String.format("%s WHERE d.id = :id", SELECT_QUERY);
+        return this.fetch("WHERE d.id = :id", spec -> spec.bind("id", id))
+                .singleOrEmpty();
+    }
 
-        return client.sql(query)
-                .bind("id", id)
-                .fetch()
+    /**
+     * Returns the Departments with the given IDs, ordered by ID.
+     *
+     * @param ids Department IDs
+     * @return Flux of {@link Department}
+     */
+    @Override
+    public Flux<Department> findAllByIds(Collection<Long> ids) {
+        return this.fetch("WHERE d.id = ANY(:ids) ORDER BY d.id", spec -> spec.bind("ids", ids.toArray(Long[]::new)));
+    }
+
+    /**
+     * Returns Departments ordered by ID, starting after a Department ID, without their managers and employees.
+     *
+     * @param after Department ID to start after, or null to start from the first Department
+     * @param limit Maximum number of Departments, or null for no limit
+     * @return Flux of {@link Department}
+     */
+    @Override
+    public Flux<Department> findAllWithoutMembers(Long after, Integer limit) {
+        String query = String.format("%s WHERE d.id > :after ORDER BY d.id%s", DEPARTMENT_QUERY,
+                limit == null ? "" : " LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(query).bind("after", after == null ? 0L : after);
+
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+
+        return spec.filter(statement -> statement.fetchSize(this.properties.getFetchSize()))
+                .map((row, metadata) -> departmentFromRow(row, 0))
+                .all();
+    }
+
+    /**
+     * Returns the Departments with the given IDs, ordered by ID, without their managers and employees.
+     *
+     * @param ids Department IDs
+     * @return Flux of {@link Department}
+     */
+    @Override
+    public Flux<Department> findAllWithoutMembersByIds(Collection<Long> ids) {
+        return client.sql(String.format("%s WHERE d.id = ANY(:ids) ORDER BY d.id", DEPARTMENT_QUERY))
+                .bind("ids", ids.toArray(Long[]::new))
+                .map((row, metadata) -> departmentFromRow(row, 0))
+                .all();
+    }
+
+    /**
+     * Returns the managers of Departments by ID, with one query. Departments without a manager have no entry.
+     *
+     * @param ids Department IDs
+     * @return Mono of managers by Department ID
+     */
+    @Override
+    public Mono<Map<Long, Employee>> findManagersByDepartmentIds(Collection<Long> ids) {
+        return client.sql(MANAGER_QUERY)
+                .bind("ids", ids.toArray(Long[]::new))
+                .map((row, metadata) -> Tuples.of(row.get(0, Long.class), Employee.fromRow(row, 1)))
                 .all()
-                .bufferUntilChanged(result -> result.get("d_id"))
-                .flatMap(Department::fromRows)
-                .singleOrEmpty();
+                .collectMap(Tuple2::getT1, Tuple2::getT2);
+    }
+
+    /**
+     * Returns the employees of Departments by ID, ordered by ID, with one query. Departments without employees have
+     * no entry.
+     *
+     * @param ids Department IDs
+     * @return Mono of employees by Department ID
+     */
+    @Override
+    public Mono<Map<Long, Collection<Employee>>> findEmployeesByDepartmentIds(Collection<Long> ids) {
+        return client.sql(EMPLOYEE_QUERY)
+                .bind("ids", ids.toArray(Long[]::new))
+                .map((row, metadata) -> Tuples.of(row.get(0, Long.class), Employee.fromRow(row, 1)))
+                .all()
+                .collectMultimap(Tuple2::getT1, Tuple2::getT2);
+    }
+
+    /**
+     * Returns the Departments that Employees belong to or manage, without their managers and employees, with one
+     * query. An Employee who belongs to one Department and manages another is mapped to the one they belong to.
+     * Employees without a Department have no entry.
+     *
+     * @param employeeIds Employee IDs
+     * @return Mono of {@link Department} by Employee ID
+     */
+    @Override
+    public Mono<Map<Long, Department>> findAllWithoutMembersByMemberIds(Collection<Long> employeeIds) {
+        return client.sql(MEMBER_DEPARTMENT_QUERY)
+                .bind("ids", employeeIds.toArray(Long[]::new))
+                .map((row, metadata) -> Tuples.of(row.get(0, Long.class), departmentFromRow(row, 1)))
+                .all()
+                .collectMap(Tuple2::getT1, Tuple2::getT2);
     }
 
     /**
@@ -70,19 +295,115 @@ public class DepartmentRepositoryImpl implements DepartmentRepository {
      */
     @Override
     public Mono<Department> findByName(String name) {
-        String query = String.format("%s WHERE d.name = :name", SELECT_QUERY);
+        return this.fetch("WHERE d.name = :name", spec -> spec.bind("name", name))
+                .singleOrEmpty();
+    }
+
+    /**
+     * Returns the Employees of a Department by ID, ordered by ID.
+     *
+     * @param id         Department ID
+     * @param isFullTime Filter Employees on full time status, or null for all Employees
+     * @return Flux of {@link Employee}
+     */
+    @Override
+    public Flux<Employee> findDepartmentEmployees(long id, Boolean isFullTime) {
+        String query = String.format(DEPARTMENT_EMPLOYEES_QUERY, isFullTime != null ? "AND e.is_full_time = :isFullTime" : "");
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(query).bind("id", id);
+
+        if (isFullTime != null) {
+            spec = spec.bind("isFullTime", isFullTime);
+        }
+
+        return spec.filter(statement -> statement.fetchSize(this.properties.getFetchSize()))
+                .map((row, metadata) -> Employee.fromRow(row, 0))
+                .all();
+    }
+
+    /**
+     * Returns whether a Department exists.
+     *
+     * @param id Department ID
+     * @return Mono of {@link Boolean}
+     */
+    @Override
+    public Mono<Boolean> existsById(long id) {
+        return client.sql("SELECT EXISTS(SELECT 1 FROM departments WHERE id = :id)")
+                .bind("id", id)
+                .map((row, metadata) -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * Returns every Department membership, ordered by Department with its manager first, streamed from the database
+     * {@link RepositoryProperties#getFetchSize()} rows at a time.
+     *
+     * @return Flux of {@link OrgChartEntry}
+     */
+    @Override
+    public Flux<OrgChartEntry> exportOrgChart() {
+        String query = """
+                SELECT d.id, d.name, m.role, e.id, e.first_name, e.last_name, e.position, e.is_full_time
+                FROM departments d
+                LEFT JOIN (
+                    SELECT department_id, employee_id, 'MANAGER' AS role FROM department_managers
+                    UNION ALL
+                    SELECT department_id, employee_id, 'EMPLOYEE' AS role FROM department_employees
+                ) m ON m.department_id = d.id
+                LEFT JOIN employees e ON e.id = m.employee_id
+                ORDER BY d.id, m.role DESC, e.id
+                """;
 
         return client.sql(query)
-                .bind("name", name)
-                .fetch()
-                .all()
-                .bufferUntilChanged(result -> result.get("d_id"))
-                .flatMap(Department::fromRows)
-                .singleOrEmpty();
+                .filter(statement -> statement.fetchSize(this.properties.getFetchSize()))
+                .map((row, metadata) -> OrgChartEntry.fromRow(row))
+                .all();
+    }
+
+    /**
+     * Returns the version of a Department by ID, without loading its members.
+     *
+     * @param id Department ID
+     * @return Mono of the version
+     */
+    @Override
+    public Mono<Long> findVersion(long id) {
+        return client.sql("SELECT version FROM departments WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Returns the member counts of every Department, ordered by ID.
+     *
+     * @return Flux of {@link DepartmentStats}
+     */
+    @Override
+    public Flux<DepartmentStats> findStats() {
+        return client.sql(String.format(STATS_QUERY, "", ""))
+                .map((row, metadata) -> DepartmentStats.fromRow(row))
+                .all();
     }
 
     /**
-     * Saves and returns a Department.
+     * Returns the member counts of a Department by ID.
+     *
+     * @param id Department ID
+     * @return Mono of {@link DepartmentStats}
+     */
+    @Override
+    public Mono<DepartmentStats> findStats(long id) {
+        return client.sql(String.format(STATS_QUERY, "WHERE m.department_id = :id", "WHERE d.id = :id"))
+                .bind("id", id)
+                .map((row, metadata) -> DepartmentStats.fromRow(row))
+                .one();
+    }
+
+    /**
+     * Saves and returns a Department. Returns empty if a new Department's name is taken or an existing Department
+     * does not exist.
      *
      * @param department {@link Department}
      * @return Mono of {@link Department}
@@ -90,13 +411,54 @@ public class DepartmentRepositoryImpl implements DepartmentRepository {
     @Override
     @Transactional
     public Mono<Department> save(Department department) {
-        return this.saveDepartment(department)
-                .flatMap(this::saveManager)
-                .flatMap(this::saveEmployees)
-                .flatMap(this::deleteDepartmentManager)
-                .flatMap(this::saveDepartmentManager)
-                .flatMap(this::deleteDepartmentEmployees)
-                .flatMap(this::saveDepartmentEmployees);
+        return this.save(department, false);
+    }
+
+    /**
+     * Updates and returns an existing Department, keeping its current manager when none is given. Returns empty if
+     * the Department does not exist.
+     *
+     * @param department {@link Department} with an ID
+     * @return Mono of {@link Department}
+     */
+    @Override
+    @Transactional
+    public Mono<Department> update(Department department) {
+        return this.save(department, true);
+    }
+
+    /**
+     * Inserts new Departments and their members with multi-row statements. Departments whose name is taken are
+     * skipped. Members are moved out of any other Department, as with {@link #save(Department)}.
+     *
+     * @param departments Departments without IDs
+     * @return Flux of the inserted {@link Department}
+     */
+    @Override
+    @Transactional
+    public Flux<Department> insertAll(List<Department> departments) {
+        String query = "INSERT INTO departments(name) SELECT unnest(:names) ON CONFLICT (name) DO NOTHING RETURNING id, name";
+
+        return client.sql(query)
+                .bind("names", departments.stream().map(Department::getName).toArray(String[]::new))
+                .map((row, metadata) -> Tuples.of(row.get(1, String.class), row.get(0, Long.class)))
+                .all()
+                .collectMap(Tuple2::getT1, Tuple2::getT2)
+                .map(ids -> {
+                    List<Department> inserted = new ArrayList<>();
+
+                    for (Department department : departments) {
+                        Long id = ids.remove(department.getName());
+
+                        if (id != null) {
+                            department.setId(id);
+                            inserted.add(department);
+                        }
+                    }
+
+                    return inserted;
+                })
+                .flatMapMany(inserted -> this.insertMembers(inserted).thenMany(Flux.fromIterable(inserted)));
     }
 
     /**
@@ -115,87 +477,305 @@ public class DepartmentRepositoryImpl implements DepartmentRepository {
     }
 
     /**
-     * Saves a Department.
+     * Returns the Departments matching a clause, using the configured {@link FetchMode}.
      *
-     * @param department {@link Department}
+     * @param clause   SQL appended to the query, referring to departments as {@code d}
+     * @param bindings Binds the clause parameters
+     * @return Flux of {@link Department}
+     */
+    private Flux<Department> fetch(String clause, UnaryOperator<DatabaseClient.GenericExecuteSpec> bindings) {
+        if (this.properties.getFetchMode() == FetchMode.JOIN) {
+            return bindings.apply(client.sql(String.format("%s %s", SELECT_QUERY, clause)))
+                    .filter(statement -> statement.fetchSize(this.properties.getFetchSize()))
+                    .map((row, metadata) -> DepartmentRow.fromRow(row))
+                    .all()
+                    .bufferUntilChanged(DepartmentRow::id)
+                    .map(Department::fromRows);
+        }
+
+        return bindings.apply(client.sql(String.format("%s %s", DEPARTMENT_QUERY, clause)))
+                .filter(statement -> statement.fetchSize(this.properties.getFetchSize()))
+                .map((row, metadata) -> departmentFromRow(row, 0))
+                .all()
+                .buffer(this.properties.getFetchSize())
+                .concatMap(this::fetchMembers);
+    }
+
+    /**
+     * Loads the managers and employees of Departments by ID, one query each, and assigns them. The queries run one
+     * after the other, so together with the Department query a fetch holds at most two connections.
+     *
+     * @param departments Departments without members
+     * @return Flux of {@link Department}
+     */
+    private Flux<Department> fetchMembers(List<Department> departments) {
+        List<Long> ids = departments.stream().map(Department::getId).toList();
+
+        return this.findManagersByDepartmentIds(ids).zipWhen(unused -> this.findEmployeesByDepartmentIds(ids))
+                .flatMapIterable(members -> {
+                    departments.forEach(department -> {
+                        department.setManager(members.getT1().get(department.getId()));
+                        department.setEmployees(new ArrayList<>(members.getT2().getOrDefault(department.getId(), List.of())));
+                    });
+                    return departments;
+                });
+    }
+
+    /**
+     * Maps the id, name and version columns of a row to a Department without members.
+     *
+     * @param row   {@link Row}
+     * @param index Index of the id column
+     * @return {@link Department}
+     */
+    private static Department departmentFromRow(Row row, int index) {
+        return Department.builder()
+                .id(row.get(index, Long.class))
+                .name(row.get(index + 1, String.class))
+                .version(row.get(index + 2, Long.class))
+                .build();
+    }
+
+    /**
+     * Maps the columns selected for the requested fields of a Department, read by index in field order. A manager
+     * takes the five Employee columns.
+     *
+     * @param row    {@link Row}
+     * @param fields Requested fields, without employees
+     * @return Map of property name to value
+     */
+    private static Map<String, Object> projectionFromRow(Row row, Set<DepartmentField> fields) {
+        Map<String, Object> department = new LinkedHashMap<>();
+        int index = 0;
+
+        for (DepartmentField field : fields) {
+            switch (field) {
+                case ID -> department.put(field.getProperty(), row.get(index++, Long.class));
+                case NAME -> department.put(field.getProperty(), row.get(index++, String.class));
+                default -> {
+                    department.put(field.getProperty(), Employee.fromRow(row, index));
+                    index += 5;
+                }
+            }
+        }
+
+        return department;
+    }
+
+    /**
+     * Saves a Department and its members, writing only the memberships that changed.
+     *
+     * @param department  {@link Department}
+     * @param keepManager Whether to keep the persisted manager when the Department has none
      * @return Mono of {@link Department}
      */
-    private Mono<Department> saveDepartment(Department department) {
+    private Mono<Department> save(Department department, boolean keepManager) {
+        return this.saveDepartment(department)
+                .flatMap(membership -> {
+                    if (keepManager && department.getManager().isEmpty()) {
+                        department.setManager(membership.manager());
+                    }
+
+                    return this.saveManager(department, membership)
+                            .then(this.saveEmployees(department.getEmployees()))
+                            .then(this.saveDepartmentManager(department, membership))
+                            .then(this.saveDepartmentEmployees(department, membership));
+                });
+    }
+
+    /**
+     * Saves a Department with a single statement and returns its persisted members. New Departments are inserted
+     * unless the name is taken and have no members. Existing Departments are updated and their members read in the
+     * same statement. Returns empty if no row was written.
+     *
+     * @param department {@link Department}
+     * @return Mono of {@link Membership}
+     */
+    private Mono<Membership> saveDepartment(Department department) {
         if (department.getId() == null) {
-            return client.sql("INSERT INTO departments(name) VALUES(:name)")
+            return client.sql("INSERT INTO departments(name) VALUES(:name) ON CONFLICT (name) DO NOTHING RETURNING id")
                     .bind("name", department.getName())
-                    .filter((statement, executeFunction) -> statement.returnGeneratedValues("id").execute())
-                    .fetch().first()
-                    .doOnNext(result -> department.setId(Long.parseLong(result.get("id").toString())))
-                    .thenReturn(department);
+                    .map((row, metadata) -> row.get(0, Long.class))
+                    .one()
+                    .doOnNext(department::setId)
+                    .map(id -> new Membership(null, Set.of()));
         } else {
-            return this.client.sql("UPDATE departments SET name = :name WHERE id = :id")
+            return client.sql(UPDATE_QUERY)
                     .bind("name", department.getName())
                     .bind("id", department.getId())
-                    .fetch().first()
-                    .thenReturn(department);
+                    .map((row, metadata) -> new Membership(Employee.fromRow(row, 0), Set.of(row.get(5, Long[].class))))
+                    .one();
         }
     }
 
     /**
-     * Saves a Department Manager.
+     * Saves a Department Manager, if it differs from the persisted one.
      *
      * @param department {@link Department}
+     * @param membership Persisted {@link Membership}
      * @return Mono of {@link Department}
      */
-    private Mono<Department> saveManager(Department department) {
+    private Mono<Department> saveManager(Department department, Membership membership) {
         return Mono.justOrEmpty(department.getManager())
-                .flatMap(employeeRepository::save)
-                .doOnNext(department::setManager)
+                .filter(manager -> !manager.equals(membership.manager()))
+                .flatMap(manager -> manager.getId() == null
+                        ? this.employeeRepository.insertAll(List.of(manager)).then()
+                        : this.employeeRepository.updateAll(List.of(manager)).then())
                 .thenReturn(department);
     }
 
     /**
-     * Saves Department Employees.
+     * Saves Employees, updating existing and inserting new Employees in batches of
+     * {@link RepositoryProperties#getBatchSize()}.
      *
-     * @param department {@link Department}
-     * @return Mono of {@link Department}
+     * @param employees Employees
+     * @return Mono of {@link Void}
      */
-    private Mono<Department> saveEmployees(Department department) {
-        return Flux.fromIterable(department.getEmployees())
-                .flatMap(this.employeeRepository::save)
-                .collectList()
-                .doOnNext(department::setEmployees)
-                .thenReturn(department);
+    private Mono<Void> saveEmployees(List<Employee> employees) {
+        Map<Boolean, List<Employee>> partitioned = employees.stream()
+                .collect(Collectors.partitioningBy(employee -> employee.getId() == null));
+
+        Flux<Integer> updated = Flux.fromIterable(partitioned.get(false))
+                .buffer(this.properties.getBatchSize())
+                .concatMap(this.employeeRepository::updateAll);
+
+        Flux<Employee> inserted = Flux.fromIterable(partitioned.get(true))
+                .buffer(this.properties.getBatchSize())
+                .concatMap(this.employeeRepository::insertAll);
+
+        return updated.thenMany(inserted).then();
     }
 
     /**
-     * Saves the relationship between Department and Manager.
+     * Saves the managers and employees of new Departments and inserts their memberships.
+     *
+     * @param departments Inserted Departments
+     * @return Mono of {@link Void}
+     */
+    private Mono<Void> insertMembers(List<Department> departments) {
+        List<Employee> members = Stream.concat(
+                        departments.stream().flatMap(department -> department.getManager().stream()),
+                        departments.stream().flatMap(department -> department.getEmployees().stream()))
+                .toList();
+
+        return this.saveEmployees(members)
+                .then(Mono.defer(() -> this.insertMemberships("department_managers", departments.stream()
+                        .flatMap(department -> department.getManager().stream()
+                                .map(manager -> Tuples.of(department.getId(), manager.getId())))
+                        .toList())))
+                .then(Mono.defer(() -> this.insertMemberships("department_employees", departments.stream()
+                        .flatMap(department -> department.getEmployees().stream()
+                                .map(employee -> Tuples.of(department.getId(), employee.getId())))
+                        .toList())));
+    }
+
+    /**
+     * Inserts Department and Employee ID pairs into a membership table, in batches of
+     * {@link RepositoryProperties#getBatchSize()}, after removing the Employees' existing memberships.
+     *
+     * @param table       Membership table
+     * @param memberships Department and Employee IDs
+     * @return Mono of {@link Void}
+     */
+    private Mono<Void> insertMemberships(String table, List<Tuple2<Long, Long>> memberships) {
+        String deleteQuery = String.format("DELETE FROM %s WHERE employee_id = ANY(:employeeIds)", table);
+        String insertQuery = String.format(
+                "INSERT INTO %s(department_id, employee_id) SELECT * FROM unnest(:departmentIds, :employeeIds)", table);
+
+        return Flux.fromIterable(memberships)
+                .buffer(this.properties.getBatchSize())
+                .concatMap(batch -> {
+                    Long[] departmentIds = batch.stream().map(Tuple2::getT1).toArray(Long[]::new);
+                    Long[] employeeIds = batch.stream().map(Tuple2::getT2).toArray(Long[]::new);
+
+                    return client.sql(deleteQuery)
+                            .bind("employeeIds", employeeIds)
+                            .fetch().rowsUpdated()
+                            .then(client.sql(insertQuery)
+                                    .bind("departmentIds", departmentIds)
+                                    .bind("employeeIds", employeeIds)
+                                    .fetch().rowsUpdated());
+                })
+                .then();
+    }
+
+    /**
+     * Saves the relationship between Department and Manager, if the manager changed.
      *
      * @param department {@link Department}
+     * @param membership Persisted {@link Membership}
      * @return Mono of {@link Department}
      */
-    private Mono<Department> saveDepartmentManager(Department department) {
-        String query = "INSERT INTO department_managers(department_id, employee_id) VALUES (:id, :empId)";
+    private Mono<Department> saveDepartmentManager(Department department, Membership membership) {
+        Long managerId = department.getManager().map(Employee::getId).orElse(null);
 
-        return Mono.justOrEmpty(department.getManager())
-                .flatMap(manager -> client.sql(query)
+        if (Objects.equals(managerId, membership.managerId())) {
+            return Mono.just(department);
+        }
+
+        Mono<Integer> deleted = managerId == null
+                ? client.sql("DELETE FROM department_managers WHERE department_id = :id")
+                .bind("id", department.getId())
+                .fetch().rowsUpdated()
+                : client.sql("DELETE FROM department_managers WHERE department_id = :id OR employee_id = :managerId")
+                .bind("id", department.getId())
+                .bind("managerId", managerId)
+                .fetch().rowsUpdated();
+
+        Mono<Integer> inserted = Mono.justOrEmpty(managerId)
+                .flatMap(id -> client.sql("INSERT INTO department_managers(department_id, employee_id) VALUES (:id, :managerId)")
                         .bind("id", department.getId())
-                        .bind("empId", manager.getId())
-                        .fetch().rowsUpdated())
-                .thenReturn(department);
+                        .bind("managerId", id)
+                        .fetch().rowsUpdated());
+
+        return deleted.then(inserted).thenReturn(department);
     }
 
     /**
-     * Saves the relationship between Department and Employees.
+     * Saves the relationship between Department and Employees, deleting removed Employees and inserting added ones.
+     * Added Employees are first removed from any other Department. Inserts run one multi-row statement per batch of
+     * {@link RepositoryProperties#getBatchSize()}.
      *
      * @param department {@link Department}
+     * @param membership Persisted {@link Membership}
      * @return Mono of {@link Department}
      */
-    private Mono<Department> saveDepartmentEmployees(Department department) {
-        String query = "INSERT INTO department_employees(department_id, employee_id) VALUES (:id, :empId)";
+    private Mono<Department> saveDepartmentEmployees(Department department, Membership membership) {
+        Set<Long> employeeIds = department.getEmployees().stream()
+                .map(Employee::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        return Flux.fromIterable(department.getEmployees())
-                .flatMap(employee -> client.sql(query)
+        Long[] removed = membership.employeeIds().stream()
+                .filter(id -> !employeeIds.contains(id))
+                .toArray(Long[]::new);
+        List<Long> added = employeeIds.stream()
+                .filter(id -> !membership.employeeIds().contains(id))
+                .toList();
+
+        if (removed.length == 0 && added.isEmpty()) {
+            return Mono.just(department);
+        }
+
+        String deleteQuery = """
+                DELETE FROM department_employees
+                WHERE (department_id = :id AND employee_id = ANY(:removed)) OR employee_id = ANY(:added)""";
+        String insertQuery = "INSERT INTO department_employees(department_id, employee_id) SELECT :id, unnest(:empIds)";
+
+        Mono<Integer> deleted = client.sql(deleteQuery)
+                .bind("id", department.getId())
+                .bind("removed", removed)
+                .bind("added", added.toArray(Long[]::new))
+                .fetch().rowsUpdated();
+
+        Flux<Integer> inserted = Flux.fromIterable(added)
+                .buffer(this.properties.getBatchSize())
+                .concatMap(ids -> client.sql(insertQuery)
                         .bind("id", department.getId())
-                        .bind("empId", employee.getId())
-                        .fetch().rowsUpdated())
-                .collectList()
+                        .bind("empIds", ids.toArray(Long[]::new))
+                        .fetch().rowsUpdated());
+
+        return deleted.thenMany(inserted)
+                .then()
                 .thenReturn(department);
     }
 
@@ -248,4 +828,16 @@ public class DepartmentRepositoryImpl implements DepartmentRepository {
                         .fetch().rowsUpdated())
                 .thenReturn(department);
     }
+
+    /**
+     * Persisted manager and employee IDs of a Department.
+     *
+     * @param manager     Manager, or null when the Department has no manager
+     * @param employeeIds Employee IDs
+     */
+    private record Membership(Employee manager, Set<Long> employeeIds) {
+        Long managerId() {
+            return this.manager != null ? this.manager.getId() : null;
+        }
+    }
 }
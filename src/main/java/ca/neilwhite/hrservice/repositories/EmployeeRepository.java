@@ -1,15 +1,26 @@
 package ca.neilwhite.hrservice.repositories;
 
 import ca.neilwhite.hrservice.models.Employee;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface EmployeeRepository extends R2dbcRepository<Employee, Long> {
+public interface EmployeeRepository extends R2dbcRepository<Employee, Long>, EmployeeRepositoryCustom {
     Flux<Employee> findAllByPosition(String position);
     Flux<Employee> findAllByFullTime(boolean isFullTime);
     Flux<Employee> findAllByPositionAndFullTime(String position, boolean isFullTime);
     Mono<Employee> findByFirstName(String firstName);
+
+    @Query("SELECT version FROM employees WHERE id = :id")
+    Mono<Long> findVersionById(long id);
+
+    @Query("""
+            UPDATE employees SET first_name = :firstName, last_name = :lastName, position = :position, is_full_time = :fullTime
+            WHERE id = :id
+            RETURNING *
+            """)
+    Mono<Employee> update(long id, String firstName, String lastName, String position, boolean fullTime);
 }
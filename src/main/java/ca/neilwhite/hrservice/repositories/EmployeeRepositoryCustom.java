@@ -0,0 +1,26 @@
+package ca.neilwhite.hrservice.repositories;
+
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.EmployeeField;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface EmployeeRepositoryCustom {
+    Flux<Employee> findAll(String position, Boolean isFullTime, Long after, Integer limit);
+
+    Flux<Map<String, Object>> findAll(Set<EmployeeField> fields, String position, Boolean isFullTime, Long after,
+                                      Integer limit);
+
+    Flux<Employee> findAllByIds(Collection<Long> ids);
+
+    Flux<Employee> search(String query, int limit, long offset);
+
+    Flux<Employee> insertAll(List<Employee> employees);
+
+    Mono<Integer> updateAll(List<Employee> employees);
+}
@@ -0,0 +1,226 @@
+package ca.neilwhite.hrservice.repositories;
+
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.EmployeeField;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+    private final DatabaseClient client;
+    private final RepositoryProperties properties;
+    static final String SEARCH_QUERY = """
+            SELECT id, first_name, last_name, position, is_full_time FROM employees
+            WHERE (first_name || ' ' || last_name || ' ' || position) ILIKE :pattern
+                OR :query <% (first_name || ' ' || last_name || ' ' || position)
+            ORDER BY word_similarity(:query, first_name || ' ' || last_name || ' ' || position) DESC, id
+            LIMIT :limit OFFSET :offset
+            """;
+
+    /**
+     * Returns Employees ordered by ID, starting after an Employee ID and optionally filtered by position or full
+     * time status. Rows are fetched from a cursor, so the result can be streamed without buffering the table.
+     *
+     * @param position   Employee Position, or null for any position
+     * @param isFullTime Is Employee Full Time, or null for any status
+     * @param after      Employee ID to start after, or null to start from the first Employee
+     * @param limit      Maximum number of Employees, or null for no limit
+     * @return Flux of {@link Employee}
+     */
+    @Override
+    public Flux<Employee> findAll(String position, Boolean isFullTime, Long after, Integer limit) {
+        return this.select("id, first_name, last_name, position, is_full_time", position, isFullTime, after, limit)
+                .map((row, metadata) -> Employee.fromRow(row, 0))
+                .all();
+    }
+
+    /**
+     * Returns the requested fields of Employees ordered by ID, starting after an Employee ID and optionally filtered
+     * by position or full time status. Only the columns of the requested fields are selected.
+     *
+     * @param fields     Requested fields
+     * @param position   Employee Position, or null for any position
+     * @param isFullTime Is Employee Full Time, or null for any status
+     * @param after      Employee ID to start after, or null to start from the first Employee
+     * @param limit      Maximum number of Employees, or null for no limit
+     * @return Flux of the requested fields by property name
+     */
+    @Override
+    public Flux<Map<String, Object>> findAll(Set<EmployeeField> fields, String position, Boolean isFullTime,
+                                             Long after, Integer limit) {
+        String columns = fields.stream().map(EmployeeField::getColumn).collect(Collectors.joining(", "));
+
+        return this.select(columns, position, isFullTime, after, limit)
+                .map((row, metadata) -> EmployeeField.fromRow(row, fields))
+                .all();
+    }
+
+    /**
+     * Returns the Employees with the given IDs, in no particular order, with a single query. The IDs are bound as
+     * one array, so the statement is the same for any number of IDs.
+     *
+     * @param ids Employee IDs
+     * @return Flux of {@link Employee}
+     */
+    @Override
+    public Flux<Employee> findAllByIds(Collection<Long> ids) {
+        return client.sql("SELECT id, first_name, last_name, position, is_full_time FROM employees WHERE id = ANY(:ids)")
+                .bind("ids", ids.toArray(Long[]::new))
+                .map((row, metadata) -> Employee.fromRow(row, 0))
+                .all();
+    }
+
+    /**
+     * Returns Employees whose name or position contains the query or a word similar to it, most similar first. Both
+     * conditions are served by the trigram index on the concatenated name and position.
+     *
+     * @param query  Search text
+     * @param limit  Maximum number of Employees
+     * @param offset Number of Employees to skip
+     * @return Flux of {@link Employee}
+     */
+    @Override
+    public Flux<Employee> search(String query, int limit, long offset) {
+        return client.sql(SEARCH_QUERY)
+                .bind("query", query)
+                .bind("pattern", "%" + escapeLike(query) + "%")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map((row, metadata) -> Employee.fromRow(row, 0))
+                .all();
+    }
+
+    /**
+     * Inserts Employees with a single multi-row statement and assigns their generated IDs. PostgreSQL does not
+     * guarantee that returned rows follow the input order, so each row's ID is drawn from the sequence alongside its
+     * input ordinal and IDs are assigned to Employees by that ordinal.
+     *
+     * @param employees Employees without IDs
+     * @return Flux of {@link Employee}, in input order
+     */
+    @Override
+    public Flux<Employee> insertAll(List<Employee> employees) {
+        String query = """
+                WITH input AS (
+                    SELECT nextval(pg_get_serial_sequence('employees', 'id')) AS id, u.*
+                    FROM unnest(:firstNames, :lastNames, :positions, :fullTimes)
+                        WITH ORDINALITY AS u(first_name, last_name, position, is_full_time, ord)
+                ), inserted AS (
+                    INSERT INTO employees(id, first_name, last_name, position, is_full_time)
+                    SELECT id, first_name, last_name, position, is_full_time FROM input
+                    RETURNING id
+                )
+                SELECT input.id, input.ord FROM input JOIN inserted USING (id)
+                """;
+
+        return client.sql(query)
+                .bind("firstNames", employees.stream().map(Employee::getFirstName).toArray(String[]::new))
+                .bind("lastNames", employees.stream().map(Employee::getLastName).toArray(String[]::new))
+                .bind("positions", employees.stream().map(Employee::getPosition).toArray(String[]::new))
+                .bind("fullTimes", employees.stream().map(Employee::isFullTime).toArray(Boolean[]::new))
+                .map((row, metadata) -> Tuples.of(row.get(1, Long.class).intValue() - 1, row.get(0, Long.class)))
+                .all()
+                .doOnNext(id -> employees.get(id.getT1()).setId(id.getT2()))
+                .thenMany(Flux.fromIterable(employees));
+    }
+
+    /**
+     * Updates Employees by ID with a single multi-row statement. Rows whose values are unchanged are not written.
+     *
+     * @param employees Employees with IDs
+     * @return Mono of the number of updated rows
+     */
+    @Override
+    public Mono<Integer> updateAll(List<Employee> employees) {
+        String query = """
+                UPDATE employees e
+                SET first_name = u.first_name, last_name = u.last_name, position = u.position, is_full_time = u.is_full_time
+                FROM unnest(:ids, :firstNames, :lastNames, :positions, :fullTimes)
+                    AS u(id, first_name, last_name, position, is_full_time)
+                WHERE e.id = u.id
+                    AND (e.first_name, e.last_name, e.position, e.is_full_time)
+                        IS DISTINCT FROM (u.first_name, u.last_name, u.position, u.is_full_time)
+                """;
+
+        return client.sql(query)
+                .bind("ids", employees.stream().map(Employee::getId).toArray(Long[]::new))
+                .bind("firstNames", employees.stream().map(Employee::getFirstName).toArray(String[]::new))
+                .bind("lastNames", employees.stream().map(Employee::getLastName).toArray(String[]::new))
+                .bind("positions", employees.stream().map(Employee::getPosition).toArray(String[]::new))
+                .bind("fullTimes", employees.stream().map(Employee::isFullTime).toArray(Boolean[]::new))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Returns the query used by {@link #findAll(String, Boolean, Long, Integer)} and
+     * {@link #findAll(Set, String, Boolean, Long, Integer)} for the given columns and filters.
+     *
+     * @param columns    Selected columns
+     * @param byPosition Filter on position
+     * @param byFullTime Filter on full time status
+     * @param limited    Limit the number of Employees
+     * @return Query with named parameters
+     */
+    static String findAllQuery(String columns, boolean byPosition, boolean byFullTime, boolean limited) {
+        StringBuilder query = new StringBuilder(String.format("SELECT %s FROM employees WHERE id > :after", columns));
+
+        if (byPosition) {
+            query.append(" AND position = :position");
+        }
+        if (byFullTime) {
+            query.append(" AND is_full_time = :isFullTime");
+        }
+        query.append(" ORDER BY id");
+        if (limited) {
+            query.append(" LIMIT :limit");
+        }
+
+        return query.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    /**
+     * Returns a query selecting columns of Employees ordered by ID, starting after an Employee ID and optionally
+     * filtered by position or full time status. Rows are fetched from a cursor,
+     * {@link RepositoryProperties#getFetchSize()} at a time.
+     *
+     * @param columns    Selected columns
+     * @param position   Employee Position, or null for any position
+     * @param isFullTime Is Employee Full Time, or null for any status
+     * @param after      Employee ID to start after, or null to start from the first Employee
+     * @param limit      Maximum number of Employees, or null for no limit
+     * @return {@link DatabaseClient.GenericExecuteSpec}
+     */
+    private DatabaseClient.GenericExecuteSpec select(String columns, String position, Boolean isFullTime, Long after,
+                                                     Integer limit) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql(findAllQuery(columns, position != null, isFullTime != null, limit != null))
+                .bind("after", after == null ? 0L : after);
+
+        if (position != null) {
+            spec = spec.bind("position", position);
+        }
+        if (isFullTime != null) {
+            spec = spec.bind("isFullTime", isFullTime);
+        }
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+
+        return spec.filter(statement -> statement.fetchSize(this.properties.getFetchSize()));
+    }
+}
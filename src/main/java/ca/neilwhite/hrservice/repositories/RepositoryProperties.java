@@ -0,0 +1,56 @@
+package ca.neilwhite.hrservice.repositories;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr-service.repositories")
+public class RepositoryProperties {
+    /**
+     * Strategy used to load Department aggregates.
+     */
+    private FetchMode fetchMode = FetchMode.JOIN;
+
+    /**
+     * Number of rows fetched per round trip by streaming reads. In {@link FetchMode#SET} mode, also the number of
+     * Departments whose managers and employees are loaded together.
+     */
+    private int fetchSize = 500;
+
+    /**
+     * Number of rows written per statement by batched inserts and updates.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Department cache used by {@link CachingDepartmentRepository}.
+     */
+    private final Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+        /**
+         * Maximum number of cached Departments per lookup key (ID and name).
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Time after which a cached Department is reloaded. Bounds staleness should a change notification be lost.
+         */
+        private Duration timeToLive = Duration.ofSeconds(30);
+    }
+
+    public enum FetchMode {
+        /**
+         * One query joining departments, managers and employees, returning a row per Department employee.
+         */
+        JOIN,
+
+        /**
+         * Departments, managers and employees loaded as separate result sets and assembled by Department ID.
+         */
+        SET
+    }
+}
@@ -0,0 +1,61 @@
+package ca.neilwhite.hrservice.services;
+
+import ca.neilwhite.hrservice.models.responses.BulkImportResponse;
+import ca.neilwhite.hrservice.models.responses.BulkImportResult;
+import ca.neilwhite.hrservice.models.responses.BulkImportSummary;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Imports a stream of records in batches, one batch at a time, so only a batch is held in memory. A batch that fails
+ * is retried record by record to report which records failed. Emits a {@link BulkImportResult} per record and a
+ * closing {@link BulkImportSummary}.
+ */
+final class BulkImport {
+    private BulkImport() {
+    }
+
+    /**
+     * Imports records.
+     *
+     * @param records     Records to import
+     * @param batchSize   Number of records per batch
+     * @param importBatch Imports a batch of records, paired with their index, and returns a result per record
+     * @param <T>         Record type
+     * @return Flux of {@link BulkImportResponse}
+     */
+    static <T> Flux<BulkImportResponse> run(Flux<T> records, int batchSize,
+                                            Function<List<Tuple2<Long, T>>, Flux<BulkImportResult>> importBatch) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong imported = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+
+            Flux<BulkImportResponse> results = records.index()
+                    .buffer(batchSize)
+                    .concatMap(batch -> importBatch.apply(batch)
+                            .collectList()
+                            .flatMapIterable(Function.identity())
+                            .onErrorResume(error -> Flux.fromIterable(batch)
+                                    .concatMap(record -> importBatch.apply(List.of(record))
+                                            .onErrorResume(recordError -> Mono.just(
+                                                    BulkImportResult.failed(record.getT1(), recordError.getMessage()))))))
+                    .doOnNext(result -> (result.error() == null ? imported : failed).incrementAndGet())
+                    .cast(BulkImportResponse.class);
+
+            return results.concatWith(Mono.fromSupplier(() -> {
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                long total = imported.get() + failed.get();
+                double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+
+                return new BulkImportSummary(imported.get(), failed.get(), elapsed.toMillis(), total / seconds);
+            }));
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package ca.neilwhite.hrservice.services;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "hr-service.changes")
+public class ChangeFeedProperties {
+    /**
+     * Number of most recent changes retained by {@link ChangeFeedService} for subscribers resuming after an event ID.
+     */
+    private int historySize = 1000;
+}
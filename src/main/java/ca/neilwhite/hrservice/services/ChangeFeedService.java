@@ -0,0 +1,96 @@
+package ca.neilwhite.hrservice.services;
+
+import ca.neilwhite.hrservice.exceptions.ChangesUnavailableException;
+import ca.neilwhite.hrservice.models.ChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * In-process feed of Employee and Department changes. The latest events are retained so subscribers can resume
+ * after an event ID; older events can not be replayed.
+ * <p>
+ * Sequence numbers restart with the process, so event IDs are prefixed with an epoch chosen at startup. Resuming
+ * after an ID from another epoch, or one whose successors are no longer retained, fails with
+ * {@link ChangesUnavailableException} rather than silently skipping changes.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final Sinks.Many<ChangeEvent> sink;
+    private long sequence;
+
+    public ChangeFeedService(ChangeFeedProperties properties) {
+        this.sink = Sinks.many().replay().limit(properties.getHistorySize());
+    }
+
+    /**
+     * Publishes a change. A change the feed does not accept is logged and dropped. Its sequence number is still
+     * used, so subscribers resuming across it fail instead of missing it.
+     *
+     * @param entity Changed entity type
+     * @param type   Change type
+     * @param id     Changed entity ID
+     * @param data   Entity after the change, or null
+     */
+    public synchronized void publish(ChangeEvent.Entity entity, ChangeEvent.Type type, long id, Object data) {
+        ChangeEvent event = new ChangeEvent(this.epoch, ++this.sequence, entity, type, id, Instant.now(), data);
+        Sinks.EmitResult result = this.sink.tryEmitNext(event);
+
+        if (result.isFailure()) {
+            log.warn("Dropped change {}: {}", event.eventId(), result);
+        }
+    }
+
+    /**
+     * Returns changes published after an event ID, followed by new changes as they are published.
+     *
+     * @param since Event ID to resume after, or null for new changes only
+     * @return Flux of {@link ChangeEvent}
+     */
+    public Flux<ChangeEvent> getChanges(String since) {
+        return Flux.defer(() -> {
+            if (since == null) {
+                long after = this.currentSequence();
+                return this.sink.asFlux().filter(event -> event.sequence() > after);
+            }
+
+            long after = this.parseSequence(since);
+            return this.sink.asFlux()
+                    .skipWhile(event -> event.sequence() <= after)
+                    .switchOnFirst((first, changes) -> first.hasValue() && first.get().sequence() != after + 1
+                            ? Flux.error(new ChangesUnavailableException(since))
+                            : changes);
+        });
+    }
+
+    /**
+     * Returns the sequence number of an event ID issued in this epoch and not ahead of the feed.
+     */
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(this.epoch)) {
+            throw new ChangesUnavailableException(eventId);
+        }
+
+        long after;
+        try {
+            after = Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new ChangesUnavailableException(eventId);
+        }
+        if (after < 0 || after > this.currentSequence()) {
+            throw new ChangesUnavailableException(eventId);
+        }
+        return after;
+    }
+
+    private synchronized long currentSequence() {
+        return this.sequence;
+    }
+}
@@ -2,31 +2,72 @@ package ca.neilwhite.hrservice.services;
 
 import ca.neilwhite.hrservice.exceptions.DepartmentAlreadyExistsException;
 import ca.neilwhite.hrservice.exceptions.DepartmentNotFoundException;
+import ca.neilwhite.hrservice.models.ChangeEvent;
 import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentField;
+import ca.neilwhite.hrservice.models.DepartmentStats;
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.OrgChartEntry;
 import ca.neilwhite.hrservice.models.requests.CreateDepartmentRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResponse;
+import ca.neilwhite.hrservice.models.responses.BulkImportResult;
+import ca.neilwhite.hrservice.models.responses.LookupResult;
 import ca.neilwhite.hrservice.repositories.DepartmentRepository;
-import lombok.RequiredArgsConstructor;
+import ca.neilwhite.hrservice.repositories.RepositoryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @Service
-@RequiredArgsConstructor
 public class DepartmentService {
     private final DepartmentRepository repository;
+    private final RepositoryProperties properties;
+    private final ChangeFeedService changes;
+    private final RequestCoalescer<Long, Long> versionsById;
+
+    public DepartmentService(DepartmentRepository repository, RepositoryProperties properties,
+                             ChangeFeedService changes, MeterRegistry registry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.changes = changes;
+        this.versionsById = new RequestCoalescer<>("departments.version", repository::findVersion, registry);
+    }
 
     /**
-     * Returns all Departments.
+     * Returns Departments ordered by ID, starting after a Department ID.
      *
+     * @param after Department ID to start after, or null to start from the first Department
+     * @param limit Maximum number of Departments, or null for no limit
      * @return Flux of {@link Department}
      */
-    public Flux<Department> getDepartments() {
-        return this.repository.findAll();
+    public Flux<Department> getDepartments(Long after, Integer limit) {
+        return this.repository.findAll(after, limit);
     }
 
     /**
-     * Returns a Department by ID.
+     * Returns the requested fields of Departments ordered by ID, starting after a Department ID. Employees are only
+     * loaded when requested, and managers only joined when requested.
+     *
+     * @param fields Department property names, or empty for every property
+     * @param after  Department ID to start after, or null to start from the first Department
+     * @param limit  Maximum number of Departments, or null for no limit
+     * @return Flux of the requested fields by property name
+     */
+    public Flux<Map<String, Object>> getDepartments(List<String> fields, Long after, Integer limit) {
+        return Flux.defer(() -> this.repository.findAll(DepartmentField.parse(fields), after, limit));
+    }
+
+    /**
+     * Returns a Department by ID. Concurrent lookups of the same ID share one query in the repository cache.
      *
      * @param id Department ID
      * @return Mono of {@link Department}
@@ -36,6 +77,86 @@ public class DepartmentService {
                 .switchIfEmpty(Mono.error(new DepartmentNotFoundException(id)));
     }
 
+    /**
+     * Returns a result per requested Department ID, in request order, with the Department or the reason it is
+     * missing. All IDs are looked up together.
+     *
+     * @param ids Department IDs
+     * @return Flux of {@link LookupResult}
+     */
+    public Flux<LookupResult<Department>> getDepartmentsByIds(List<Long> ids) {
+        return this.repository.findAllByIds(new LinkedHashSet<>(ids))
+                .collectMap(Department::getId)
+                .flatMapIterable(found -> ids.stream()
+                        .map(id -> found.containsKey(id)
+                                ? LookupResult.found(id, found.get(id))
+                                : LookupResult.<Department>missing(id, DepartmentNotFoundException.message(id)))
+                        .toList());
+    }
+
+    /**
+     * Returns Departments ordered by ID, starting after a Department ID, without their managers and employees.
+     *
+     * @param after Department ID to start after, or null to start from the first Department
+     * @param limit Maximum number of Departments, or null for no limit
+     * @return Flux of {@link Department}
+     */
+    public Flux<Department> getDepartmentsWithoutMembers(Long after, Integer limit) {
+        return this.repository.findAllWithoutMembers(after, limit);
+    }
+
+    /**
+     * Returns a Department by ID without its manager and employees, or empty if it does not exist.
+     *
+     * @param id Department ID
+     * @return Mono of {@link Department}
+     */
+    public Mono<Department> getDepartmentWithoutMembers(Long id) {
+        return this.repository.findAllWithoutMembersByIds(List.of(id))
+                .singleOrEmpty();
+    }
+
+    /**
+     * Returns the managers of Departments by ID, looked up together.
+     *
+     * @param ids Department IDs
+     * @return Mono of managers by Department ID
+     */
+    public Mono<Map<Long, Employee>> getManagersByDepartmentIds(Collection<Long> ids) {
+        return this.repository.findManagersByDepartmentIds(ids);
+    }
+
+    /**
+     * Returns the employees of Departments by ID, looked up together.
+     *
+     * @param ids Department IDs
+     * @return Mono of employees by Department ID
+     */
+    public Mono<Map<Long, Collection<Employee>>> getEmployeesByDepartmentIds(Collection<Long> ids) {
+        return this.repository.findEmployeesByDepartmentIds(ids);
+    }
+
+    /**
+     * Returns the Departments of Employees by ID, without their managers and employees, looked up together.
+     *
+     * @param employeeIds Employee IDs
+     * @return Mono of {@link Department} by Employee ID
+     */
+    public Mono<Map<Long, Department>> getDepartmentsByMemberIds(Collection<Long> employeeIds) {
+        return this.repository.findAllWithoutMembersByMemberIds(employeeIds);
+    }
+
+    /**
+     * Returns the version of a Department by ID, or empty if it does not exist. Concurrent lookups of the same ID
+     * share one query.
+     *
+     * @param id Department ID
+     * @return Mono of the version
+     */
+    public Mono<Long> getDepartmentVersion(Long id) {
+        return this.versionsById.get(id);
+    }
+
     /**
      * Returns the Employees of a Department by ID.
      *
@@ -44,18 +165,39 @@ public class DepartmentService {
      * @return Flux of {@link Employee}
      */
     public Flux<Employee> getDepartmentEmployees(Long id, Boolean isFullTime) {
-        if (isFullTime != null) {
-            return this.repository.findById(id)
-                    .switchIfEmpty(Mono.error(new DepartmentNotFoundException(id)))
-                    .flatMapMany(department ->
-                            Flux.fromStream(department.getEmployees()
-                                    .stream()
-                                    .filter(employee -> employee.isFullTime() == isFullTime)));
-        } else {
-            return this.repository.findById(id)
-                    .switchIfEmpty(Mono.error(new DepartmentNotFoundException(id)))
-                    .flatMapMany(department -> Flux.fromIterable(department.getEmployees()));
-        }
+        return this.repository.existsById(id)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(new DepartmentNotFoundException(id)))
+                .flatMapMany(exists -> this.repository.findDepartmentEmployees(id, isFullTime));
+    }
+
+    /**
+     * Returns every Department membership, streamed from the database.
+     *
+     * @return Flux of {@link OrgChartEntry}
+     */
+    public Flux<OrgChartEntry> exportOrgChart() {
+        return this.repository.exportOrgChart();
+    }
+
+    /**
+     * Returns the member counts of every Department.
+     *
+     * @return Flux of {@link DepartmentStats}
+     */
+    public Flux<DepartmentStats> getDepartmentStats() {
+        return this.repository.findStats();
+    }
+
+    /**
+     * Returns the member counts of a Department by ID.
+     *
+     * @param id Department ID
+     * @return Mono of {@link DepartmentStats}
+     */
+    public Mono<DepartmentStats> getDepartmentStats(Long id) {
+        return this.repository.findStats(id)
+                .switchIfEmpty(Mono.error(new DepartmentNotFoundException(id)));
     }
 
     /**
@@ -65,32 +207,39 @@ public class DepartmentService {
      * @return Mono of {@link Department}
      */
     public Mono<Department> createDepartment(CreateDepartmentRequest request) {
-        return this.repository.findByName(request.name())
-                .flatMap(department -> Mono.error(new DepartmentAlreadyExistsException(department.getName())))
-                .defaultIfEmpty(Department.builder().name(request.name()).build()).cast(Department.class)
-                .flatMap(this.repository::save);
+        return this.repository.save(Department.builder().name(request.name()).build())
+                .switchIfEmpty(Mono.error(new DepartmentAlreadyExistsException(request.name())))
+                .doOnNext(department -> this.publish(ChangeEvent.Type.CREATED, department));
     }
 
     /**
-     * Updates and returns a Department.
+     * Creates Departments, with their managers and employees, from a stream of Departments, inserting
+     * {@link RepositoryProperties#getBatchSize()} Departments per transaction. Returns a result per Department,
+     * followed by a summary.
+     *
+     * @param departments Flux of {@link Department}
+     * @return Flux of {@link BulkImportResponse}
+     */
+    public Flux<BulkImportResponse> importDepartments(Flux<Department> departments) {
+        return BulkImport.run(departments, this.properties.getBatchSize(), this::importBatch);
+    }
+
+    /**
+     * Updates and returns a Department. The current manager is kept when none is given.
      *
      * @param id         Department ID
      * @param department {@link Department}
      * @return Mono of {@link Department}
      */
     public Mono<Department> updateDepartment(Long id, Department department) {
-        return this.repository.findById(id)
+        return this.repository.update(Department.builder()
+                        .id(id)
+                        .name(department.getName())
+                        .manager(department.getManager().orElse(null))
+                        .employees(department.getEmployees())
+                        .build())
                 .switchIfEmpty(Mono.error(new DepartmentNotFoundException(id)))
-                .doOnNext(currentDepartment -> {
-                    currentDepartment.setName(department.getName());
-
-                    if(department.getManager().isPresent()){
-                        currentDepartment.setManager(department.getManager().get());
-                    }
-
-                    currentDepartment.setEmployees(department.getEmployees());
-                })
-                .flatMap(this.repository::save);
+                .doOnNext(updated -> this.publish(ChangeEvent.Type.UPDATED, updated));
     }
 
     /**
@@ -102,9 +251,55 @@ public class DepartmentService {
     public Mono<Void> deleteDepartment(Long id) {
         return this.repository.findById(id)
                 .switchIfEmpty(Mono.error(new DepartmentNotFoundException(id)))
-                .flatMap(this.repository::delete)
+                .flatMap(department -> this.repository.delete(department)
+                        .doOnSuccess(unused -> this.changes.publish(ChangeEvent.Entity.DEPARTMENT, ChangeEvent.Type.DELETED, id, null)))
                 .then();
     }
-}
 
+    /**
+     * Inserts the named Departments of a batch, reporting those whose name is taken. The repository assigns IDs to
+     * the Departments it is given, so each attempt works on copies of the requested Departments.
+     *
+     * @param batch Departments paired with their index
+     * @return Flux of {@link BulkImportResult}
+     */
+    private Flux<BulkImportResult> importBatch(List<Tuple2<Long, Department>> batch) {
+        List<Tuple2<Long, Department>> copies = batch.stream()
+                .map(department -> Tuples.of(department.getT1(), newDepartment(department.getT2())))
+                .toList();
+
+        List<Department> departments = copies.stream()
+                .map(Tuple2::getT2)
+                .filter(department -> StringUtils.hasText(department.getName()))
+                .toList();
+
+        Mono<List<Department>> inserted = departments.isEmpty()
+                ? Mono.just(List.of())
+                : this.repository.insertAll(departments).collectList()
+                .doOnNext(saved -> saved.forEach(department -> this.publish(ChangeEvent.Type.CREATED, department)));
+
+        return inserted.flatMapIterable(unused -> copies)
+                .map(department -> {
+                    if (!StringUtils.hasText(department.getT2().getName())) {
+                        return BulkImportResult.failed(department.getT1(), "Name is required");
+                    } else if (department.getT2().getId() == null) {
+                        return BulkImportResult.failed(department.getT1(),
+                                new DepartmentAlreadyExistsException(department.getT2().getName()).getMessage());
+                    } else {
+                        return BulkImportResult.imported(department.getT1(), department.getT2().getId());
+                    }
+                });
+    }
+
+    private void publish(ChangeEvent.Type type, Department department) {
+        this.changes.publish(ChangeEvent.Entity.DEPARTMENT, type, department.getId(), department);
+    }
 
+    private static Department newDepartment(Department department) {
+        return Department.builder()
+                .name(department.getName())
+                .manager(department.getManager().map(manager -> manager.toBuilder().build()).orElse(null))
+                .employees(department.getEmployees().stream().map(employee -> employee.toBuilder().build()).toList())
+                .build();
+    }
+}
@@ -1,53 +1,130 @@
 package ca.neilwhite.hrservice.services;
 
 import ca.neilwhite.hrservice.exceptions.EmployeeNotFoundException;
+import ca.neilwhite.hrservice.models.ChangeEvent;
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.EmployeeField;
 import ca.neilwhite.hrservice.models.requests.CreateEmployeeRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResponse;
+import ca.neilwhite.hrservice.models.responses.BulkImportResult;
+import ca.neilwhite.hrservice.models.responses.LookupResult;
 import ca.neilwhite.hrservice.repositories.EmployeeRepository;
-import lombok.RequiredArgsConstructor;
+import ca.neilwhite.hrservice.repositories.RepositoryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class EmployeeService {
     private final EmployeeRepository repository;
+    private final RepositoryProperties properties;
+    private final ChangeFeedService changes;
+    private final RequestCoalescer<Long, Employee> employeesById;
+    private final RequestCoalescer<Long, Long> versionsById;
+
+    public EmployeeService(EmployeeRepository repository, RepositoryProperties properties, ChangeFeedService changes,
+                           MeterRegistry registry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.changes = changes;
+        this.employeesById = new RequestCoalescer<>("employees.id", repository::findById, registry);
+        this.versionsById = new RequestCoalescer<>("employees.version", repository::findVersionById, registry);
+    }
 
     /**
-     * Returns all Employees, optionally filtered by position or full time status.
+     * Returns Employees ordered by ID, optionally filtered by position or full time status and starting after an
+     * Employee ID.
      *
      * @param position   Employee Position
      * @param isFullTime Is Employee Full Time
+     * @param after      Employee ID to start after, or null to start from the first Employee
+     * @param limit      Maximum number of Employees, or null for no limit
      * @return Flux of {@link Employee}
      */
-    public Flux<Employee> getEmployees(String position, Boolean isFullTime) {
-        if (position != null) {
-            if (isFullTime != null) {
-                return this.repository.findAllByPositionAndFullTime(position, isFullTime);
-            } else {
-                return this.repository.findAllByPosition(position);
-            }
-        } else {
-            if (isFullTime != null) {
-                return this.repository.findAllByFullTime(isFullTime);
-            } else {
-                return this.repository.findAll();
-            }
+    public Flux<Employee> getEmployees(String position, Boolean isFullTime, Long after, Integer limit) {
+        return this.repository.findAll(position, isFullTime, after, limit);
+    }
+
+    /**
+     * Returns the requested fields of Employees ordered by ID, optionally filtered by position or full time status
+     * and starting after an Employee ID. Only the requested columns are read.
+     *
+     * @param fields     Employee property names, or empty for every property
+     * @param position   Employee Position
+     * @param isFullTime Is Employee Full Time
+     * @param after      Employee ID to start after, or null to start from the first Employee
+     * @param limit      Maximum number of Employees, or null for no limit
+     * @return Flux of the requested fields by property name
+     */
+    public Flux<Map<String, Object>> getEmployees(List<String> fields, String position, Boolean isFullTime,
+                                                  Long after, Integer limit) {
+        return Flux.defer(() -> this.repository.findAll(EmployeeField.parse(fields), position, isFullTime, after, limit));
+    }
+
+    /**
+     * Returns a result per requested Employee ID, in request order, with the Employee or the reason it is missing.
+     * All IDs are looked up with one query.
+     *
+     * @param ids Employee IDs
+     * @return Flux of {@link LookupResult}
+     */
+    public Flux<LookupResult<Employee>> getEmployeesByIds(List<Long> ids) {
+        return this.repository.findAllByIds(new LinkedHashSet<>(ids))
+                .collectMap(Employee::getId)
+                .flatMapIterable(found -> ids.stream()
+                        .map(id -> found.containsKey(id)
+                                ? LookupResult.found(id, found.get(id))
+                                : LookupResult.<Employee>missing(id, EmployeeNotFoundException.message(id)))
+                        .toList());
+    }
+
+    /**
+     * Returns Employees matching a search query by name or position, best matches first. A blank query matches no
+     * Employees.
+     *
+     * @param query  Search text
+     * @param limit  Maximum number of Employees
+     * @param offset Number of Employees to skip
+     * @return Flux of {@link Employee}
+     */
+    public Flux<Employee> searchEmployees(String query, int limit, long offset) {
+        if (!StringUtils.hasText(query)) {
+            return Flux.empty();
         }
+
+        return this.repository.search(query.trim(), limit, offset);
     }
 
     /**
-     * Returns an Employee by ID.
+     * Returns an Employee by ID. Concurrent lookups of the same ID share one query.
      *
      * @param id Employee ID
      * @return Mono of {@link Employee}
      */
     public Mono<Employee> getEmployee(Long id) {
-        return this.repository.findById(id)
+        return this.employeesById.get(id)
                 .switchIfEmpty(Mono.error(new EmployeeNotFoundException(id)));
     }
 
+    /**
+     * Returns the version of an Employee by ID, or empty if it does not exist. Concurrent lookups of the same ID
+     * share one query.
+     *
+     * @param id Employee ID
+     * @return Mono of the version
+     */
+    public Mono<Long> getEmployeeVersion(Long id) {
+        return this.versionsById.get(id);
+    }
+
     /**
      * Creates and returns a new Employee.
      *
@@ -61,7 +138,19 @@ public class EmployeeService {
                         .lastName(request.lastName())
                         .position(request.position())
                         .fullTime(request.isFullTime())
-                        .build());
+                        .build())
+                .doOnNext(employee -> this.publish(ChangeEvent.Type.CREATED, employee));
+    }
+
+    /**
+     * Creates Employees from a stream of requests, in multi-row inserts of {@link RepositoryProperties#getBatchSize()}
+     * requests. Returns a result per request, followed by a summary.
+     *
+     * @param requests Flux of {@link CreateEmployeeRequest}
+     * @return Flux of {@link BulkImportResponse}
+     */
+    public Flux<BulkImportResponse> importEmployees(Flux<CreateEmployeeRequest> requests) {
+        return BulkImport.run(requests, this.properties.getBatchSize(), this::importBatch);
     }
 
     /**
@@ -72,15 +161,10 @@ public class EmployeeService {
      * @return Mono of {@link Employee}
      */
     public Mono<Employee> updateEmployee(Long id, Employee employee) {
-        return this.repository.findById(id)
+        return this.repository.update(id, employee.getFirstName(), employee.getLastName(), employee.getPosition(),
+                        employee.isFullTime())
                 .switchIfEmpty(Mono.error(new EmployeeNotFoundException(id)))
-                .flatMap(existingEmployee -> {
-                    existingEmployee.setFirstName(employee.getFirstName());
-                    existingEmployee.setLastName(employee.getLastName());
-                    existingEmployee.setPosition(employee.getPosition());
-                    existingEmployee.setFullTime(employee.isFullTime());
-                    return this.repository.save(existingEmployee);
-                });
+                .doOnNext(updated -> this.publish(ChangeEvent.Type.UPDATED, updated));
     }
 
     /**
@@ -92,7 +176,54 @@ public class EmployeeService {
     public Mono<Void> deleteEmployee(Long id) {
         return this.repository.findById(id)
                 .switchIfEmpty(Mono.error(new EmployeeNotFoundException(id)))
-                .flatMap(this.repository::delete)
+                .flatMap(employee -> this.repository.delete(employee)
+                        .doOnSuccess(unused -> this.changes.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.DELETED, id, null)))
                 .then();
     }
+
+    /**
+     * Inserts the valid requests of a batch with a single statement.
+     *
+     * @param batch Requests paired with their index
+     * @return Flux of {@link BulkImportResult}
+     */
+    private Flux<BulkImportResult> importBatch(List<Tuple2<Long, CreateEmployeeRequest>> batch) {
+        Map<Boolean, List<Tuple2<Long, CreateEmployeeRequest>>> requests = batch.stream()
+                .collect(Collectors.partitioningBy(request -> isValid(request.getT2())));
+
+        Flux<BulkImportResult> rejected = Flux.fromIterable(requests.get(false))
+                .map(request -> BulkImportResult.failed(request.getT1(), "First name, last name and position are required"));
+
+        List<Tuple2<Long, CreateEmployeeRequest>> valid = requests.get(true);
+
+        if (valid.isEmpty()) {
+            return rejected;
+        }
+
+        List<Employee> employees = valid.stream()
+                .map(request -> Employee.builder()
+                        .firstName(request.getT2().firstName())
+                        .lastName(request.getT2().lastName())
+                        .position(request.getT2().position())
+                        .fullTime(request.getT2().isFullTime())
+                        .build())
+                .toList();
+
+        return this.repository.insertAll(employees)
+                .collectList()
+                .doOnNext(inserted -> inserted.forEach(employee -> this.publish(ChangeEvent.Type.CREATED, employee)))
+                .flatMapIterable(inserted -> inserted)
+                .zipWithIterable(valid, (employee, request) -> BulkImportResult.imported(request.getT1(), employee.getId()))
+                .concatWith(rejected);
+    }
+
+    private void publish(ChangeEvent.Type type, Employee employee) {
+        this.changes.publish(ChangeEvent.Entity.EMPLOYEE, type, employee.getId(), employee);
+    }
+
+    private static boolean isValid(CreateEmployeeRequest request) {
+        return StringUtils.hasText(request.firstName())
+                && StringUtils.hasText(request.lastName())
+                && StringUtils.hasText(request.position());
+    }
 }
@@ -0,0 +1,78 @@
+package ca.neilwhite.hrservice.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Shares one in-flight lookup among concurrent callers of the same key, so a burst of identical requests runs a single
+ * query. Nothing is kept once the lookup completes. Calls are counted as {@code request.coalescer.calls}, tagged with
+ * the coalescer name and whether the call ran the lookup ({@code executed}) or joined a pending one
+ * ({@code collapsed}).
+ * <p>
+ * The lookup runs with the Reactor {@link reactor.util.context.Context} of the caller that started it. Callers
+ * joining a pending lookup receive its result, but their own Context does not reach it, so lookups must not depend on
+ * per-caller Context values such as transactions.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+final class RequestCoalescer<K, V> {
+    private final Function<K, Mono<V>> lookup;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter collapsed;
+
+    RequestCoalescer(String name, Function<K, Mono<V>> lookup, MeterRegistry registry) {
+        this.lookup = lookup;
+        this.executed = callCounter(registry, name, "executed");
+        this.collapsed = callCounter(registry, name, "collapsed");
+    }
+
+    /**
+     * Returns the value of a key, joining the pending lookup of the key if there is one. Subscribers receive a copy of
+     * the shared future, so cancelling one subscription does not cancel the lookup for the others.
+     *
+     * @param key Key
+     * @return Mono of the value, empty if the lookup is empty
+     */
+    Mono<V> get(K key) {
+        return Mono.deferContextual(context -> {
+            CompletableFuture<V> pending = new CompletableFuture<>();
+            CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, pending);
+
+            if (existing != null) {
+                this.collapsed.increment();
+                return Mono.fromFuture(existing.copy());
+            }
+
+            this.executed.increment();
+            Mono.defer(() -> this.lookup.apply(key))
+                    .contextWrite(context)
+                    .toFuture()
+                    .whenComplete((value, error) -> {
+                        this.inFlight.remove(key, pending);
+
+                        if (error != null) {
+                            pending.completeExceptionally(error);
+                        } else {
+                            pending.complete(value);
+                        }
+                    });
+
+            return Mono.fromFuture(pending.copy());
+        });
+    }
+
+    private static Counter callCounter(MeterRegistry registry, String name, String result) {
+        return Counter.builder("request.coalescer.calls")
+                .tag("name", name)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,57 @@
+CREATE OR REPLACE FUNCTION notify_hr_service_change() RETURNS trigger AS $$
+DECLARE
+    changed_department BIGINT;
+    changed_employee BIGINT;
+BEGIN
+    IF TG_TABLE_NAME = 'departments' THEN
+        IF TG_OP = 'DELETE' THEN
+            PERFORM pg_notify('hr_service_changes', OLD.id::text);
+        ELSE
+            PERFORM pg_notify('hr_service_changes', NEW.id::text);
+        END IF;
+    ELSIF TG_TABLE_NAME = 'employees' THEN
+        IF TG_OP = 'DELETE' THEN
+            changed_employee := OLD.id;
+        ELSE
+            changed_employee := NEW.id;
+        END IF;
+
+        FOR changed_department IN
+            SELECT dm.department_id FROM department_managers dm WHERE dm.employee_id = changed_employee
+            UNION
+            SELECT de.department_id FROM department_employees de WHERE de.employee_id = changed_employee
+        LOOP
+            PERFORM pg_notify('hr_service_changes', changed_department::text);
+        END LOOP;
+    ELSE
+        IF TG_OP <> 'INSERT' THEN
+            PERFORM pg_notify('hr_service_changes', OLD.department_id::text);
+        END IF;
+        IF TG_OP <> 'DELETE' THEN
+            PERFORM pg_notify('hr_service_changes', NEW.department_id::text);
+        END IF;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS departments_changed ON departments;
+CREATE TRIGGER departments_changed
+    AFTER INSERT OR UPDATE OR DELETE ON departments
+    FOR EACH ROW EXECUTE FUNCTION notify_hr_service_change();
+
+DROP TRIGGER IF EXISTS employees_changed ON employees;
+CREATE TRIGGER employees_changed
+    AFTER INSERT OR UPDATE OR DELETE ON employees
+    FOR EACH ROW EXECUTE FUNCTION notify_hr_service_change();
+
+DROP TRIGGER IF EXISTS department_employees_changed ON department_employees;
+CREATE TRIGGER department_employees_changed
+    AFTER INSERT OR UPDATE OR DELETE ON department_employees
+    FOR EACH ROW EXECUTE FUNCTION notify_hr_service_change();
+
+DROP TRIGGER IF EXISTS department_managers_changed ON department_managers;
+CREATE TRIGGER department_managers_changed
+    AFTER INSERT OR UPDATE OR DELETE ON department_managers
+    FOR EACH ROW EXECUTE FUNCTION notify_hr_service_change();
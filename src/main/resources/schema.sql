@@ -12,13 +12,33 @@ CREATE TABLE IF NOT EXISTS employees(
 );
 
 CREATE TABLE IF NOT EXISTS department_employees(
-    department_id BIGSERIAL REFERENCES departments (id),
-    employee_id   BIGSERIAL UNIQUE REFERENCES employees (id),
+    department_id BIGINT NOT NULL REFERENCES departments (id),
+    employee_id   BIGINT NOT NULL UNIQUE REFERENCES employees (id),
     PRIMARY KEY(department_id, employee_id)
 );
 
 CREATE TABLE IF NOT EXISTS department_managers(
-    department_id BIGSERIAL UNIQUE REFERENCES departments (id),
-    employee_id   BIGSERIAL UNIQUE REFERENCES employees (id),
+    department_id BIGINT NOT NULL UNIQUE REFERENCES departments (id),
+    employee_id   BIGINT NOT NULL UNIQUE REFERENCES employees (id),
     PRIMARY KEY(department_id, employee_id)
-);
\ No newline at end of file
+);
+
+-- Join tables created before their key columns were BIGINT have unused sequences as column defaults.
+ALTER TABLE department_employees ALTER COLUMN department_id DROP DEFAULT, ALTER COLUMN employee_id DROP DEFAULT;
+ALTER TABLE department_managers ALTER COLUMN department_id DROP DEFAULT, ALTER COLUMN employee_id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS department_employees_department_id_seq, department_employees_employee_id_seq,
+    department_managers_department_id_seq, department_managers_employee_id_seq;
+
+-- Serves position filters, alone or with full time status, in ID order.
+CREATE INDEX IF NOT EXISTS employees_position_idx ON employees (position, is_full_time, id);
+
+-- Part time Employees are the minority, so a partial index is small and selective.
+CREATE INDEX IF NOT EXISTS employees_part_time_idx ON employees (id) WHERE NOT is_full_time;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS employees_search_idx ON employees
+    USING gin ((first_name || ' ' || last_name || ' ' || position) gin_trgm_ops);
+
+ALTER TABLE departments ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
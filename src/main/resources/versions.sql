@@ -0,0 +1,81 @@
+CREATE OR REPLACE FUNCTION increment_version() RETURNS trigger AS $$
+BEGIN
+    NEW.version := OLD.version + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION increment_member_department_versions() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE departments SET version = version + 1 WHERE id IN (SELECT department_id FROM new_rows);
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE departments SET version = version + 1 WHERE id IN (SELECT department_id FROM old_rows);
+    ELSE
+        UPDATE departments SET version = version + 1
+        WHERE id IN (SELECT department_id FROM new_rows UNION SELECT department_id FROM old_rows);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION increment_employee_department_versions() RETURNS trigger AS $$
+BEGIN
+    UPDATE departments SET version = version + 1
+    WHERE id IN (
+        SELECT m.department_id
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id AND o.version <> n.version
+        JOIN (
+            SELECT department_id, employee_id FROM department_managers
+            UNION ALL
+            SELECT department_id, employee_id FROM department_employees
+        ) m ON m.employee_id = n.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS departments_version ON departments;
+CREATE TRIGGER departments_version
+    BEFORE UPDATE ON departments
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name) EXECUTE FUNCTION increment_version();
+
+DROP TRIGGER IF EXISTS employees_version ON employees;
+CREATE TRIGGER employees_version
+    BEFORE UPDATE ON employees
+    FOR EACH ROW WHEN (OLD.* IS DISTINCT FROM NEW.*) EXECUTE FUNCTION increment_version();
+
+DROP TRIGGER IF EXISTS employees_department_version ON employees;
+CREATE TRIGGER employees_department_version
+    AFTER UPDATE ON employees REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION increment_employee_department_versions();
+
+DROP TRIGGER IF EXISTS department_employees_inserted_version ON department_employees;
+CREATE TRIGGER department_employees_inserted_version
+    AFTER INSERT ON department_employees REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION increment_member_department_versions();
+
+DROP TRIGGER IF EXISTS department_employees_updated_version ON department_employees;
+CREATE TRIGGER department_employees_updated_version
+    AFTER UPDATE ON department_employees REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION increment_member_department_versions();
+
+DROP TRIGGER IF EXISTS department_employees_deleted_version ON department_employees;
+CREATE TRIGGER department_employees_deleted_version
+    AFTER DELETE ON department_employees REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION increment_member_department_versions();
+
+DROP TRIGGER IF EXISTS department_managers_inserted_version ON department_managers;
+CREATE TRIGGER department_managers_inserted_version
+    AFTER INSERT ON department_managers REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION increment_member_department_versions();
+
+DROP TRIGGER IF EXISTS department_managers_updated_version ON department_managers;
+CREATE TRIGGER department_managers_updated_version
+    AFTER UPDATE ON department_managers REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION increment_member_department_versions();
+
+DROP TRIGGER IF EXISTS department_managers_deleted_version ON department_managers;
+CREATE TRIGGER department_managers_deleted_version
+    AFTER DELETE ON department_managers REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION increment_member_department_versions();
@@ -0,0 +1,100 @@
+package ca.neilwhite.hrservice.config;
+
+import ca.neilwhite.hrservice.exceptions.DepartmentNotFoundException;
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.repositories.DepartmentRepository;
+import ca.neilwhite.hrservice.repositories.RepositoryProperties;
+import ca.neilwhite.hrservice.services.ChangeFeedProperties;
+import ca.neilwhite.hrservice.services.ChangeFeedService;
+import ca.neilwhite.hrservice.services.DepartmentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvocationMetricsAspectTest {
+    @Mock
+    private DepartmentRepository repository;
+    @Mock
+    private ChangeFeedService changes;
+    @Spy
+    private RepositoryProperties properties = new RepositoryProperties();
+    @Spy
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @InjectMocks
+    private DepartmentService target;
+    private DepartmentService service;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(this.target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new InvocationMetricsAspect(this.registry));
+        this.service = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("getDepartment(1) should be timed on subscription")
+    void getDepartment_shouldRecordSuccess() {
+        when(this.repository.findById(anyLong())).thenReturn(Mono.just(Department.builder().id(1L).name("HR").build()));
+
+        Mono<Department> department = this.service.getDepartment(1L);
+        assertNull(this.registry.find("service.invocations").timer());
+
+        department.as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, this.registry.get("service.invocations")
+                .tag("class", "DepartmentService")
+                .tag("method", "getDepartment")
+                .tag("outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("getDepartment(3) should be timed as an error")
+    void getDepartment_shouldRecordError() {
+        when(this.repository.findById(anyLong())).thenReturn(Mono.empty());
+
+        this.service.getDepartment(3L)
+                .as(StepVerifier::create)
+                .expectError(DepartmentNotFoundException.class)
+                .verify();
+
+        assertEquals(1, this.registry.get("service.invocations")
+                .tag("method", "getDepartment")
+                .tag("outcome", "error")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("getChanges(null) should not be timed")
+    void getChanges_shouldNotBeTimed() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ChangeFeedService(new ChangeFeedProperties()));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new InvocationMetricsAspect(this.registry));
+        ChangeFeedService changes = factory.getProxy();
+
+        changes.getChanges(null)
+                .as(StepVerifier::create)
+                .thenCancel()
+                .verify();
+
+        assertNull(this.registry.find("service.invocations").timer());
+    }
+}
@@ -0,0 +1,76 @@
+package ca.neilwhite.hrservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredConnectionFactoryTest {
+    @Mock
+    private ConnectionPool pool;
+    @Mock
+    private Connection connection;
+    private MeterRegistry registry;
+    private MeteredConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        this.registry = new SimpleMeterRegistry();
+        this.connectionFactory = new MeteredConnectionFactory(this.pool, this.registry);
+    }
+
+    @Test
+    @DisplayName("create() should time a successful acquisition")
+    void create_shouldRecordSuccess() {
+        when(this.pool.create()).thenReturn(Mono.just(this.connection));
+
+        Mono.<Connection>from(this.connectionFactory.create())
+                .as(StepVerifier::create)
+                .expectNext(this.connection)
+                .verifyComplete();
+
+        assertEquals(1, this.registry.get("r2dbc.pool.acquire").tag("outcome", "success").timer().count());
+        assertEquals(0, this.registry.get("r2dbc.pool.acquire").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("create() should time a failed acquisition")
+    void create_shouldRecordFailure() {
+        when(this.pool.create()).thenReturn(Mono.error(new IllegalStateException("Pool exhausted")));
+
+        Mono.from(this.connectionFactory.create())
+                .as(StepVerifier::create)
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(1, this.registry.get("r2dbc.pool.acquire").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("unwrap() should return the pool")
+    void unwrap_shouldReturnPool() {
+        assertSame(this.pool, this.connectionFactory.unwrap());
+    }
+
+    @Test
+    @DisplayName("dispose() should dispose the pool")
+    void dispose_shouldDisposePool() {
+        this.connectionFactory.dispose();
+
+        verify(this.pool).dispose();
+    }
+}
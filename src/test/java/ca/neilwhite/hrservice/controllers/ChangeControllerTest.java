@@ -0,0 +1,102 @@
+package ca.neilwhite.hrservice.controllers;
+
+import ca.neilwhite.hrservice.exceptions.ChangesUnavailableException;
+import ca.neilwhite.hrservice.models.ChangeEvent;
+import ca.neilwhite.hrservice.repositories.EmployeeRepository;
+import ca.neilwhite.hrservice.repositories.EmployeeRepositoryCustomImpl;
+import ca.neilwhite.hrservice.services.ChangeFeedService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@WebFluxTest(controllers = ChangeController.class)
+@Import(SimpleMeterRegistry.class)
+class ChangeControllerTest {
+    @Autowired
+    private WebTestClient client;
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+    @MockBean
+    private EmployeeRepositoryCustomImpl employeeRepositoryCustom;
+    @MockBean
+    private ChangeFeedService service;
+
+    @Test
+    @DisplayName("GET /changes should stream ChangeEvents")
+    void getChanges_shouldStreamChanges() {
+        when(this.service.getChanges(isNull())).thenReturn(Flux.concat(Flux.just(stubbedChangeEvent()), Flux.never()));
+
+        this.client.get()
+                .uri("/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<ChangeEvent>>() {})
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .assertNext(event -> {
+                    assertEquals("a1b2c3d4-1", event.id());
+                    assertEquals("employee.updated", event.event());
+                    assertEquals(11L, event.data().id());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("GET /changes with Last-Event-ID should resume after the event")
+    void getChanges_shouldResumeAfterLastEventId() {
+        when(this.service.getChanges(eq("a1b2c3d4-1"))).thenReturn(Flux.concat(Flux.just(stubbedChangeEvent()), Flux.never()));
+
+        this.client.get()
+                .uri("/changes")
+                .header("Last-Event-ID", "a1b2c3d4-1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<ChangeEvent>>() {})
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .assertNext(event -> assertEquals("a1b2c3d4-1", event.id()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("GET /changes?since={id} should return 410 when the changes after the event are no longer available")
+    void getChanges_shouldReturnGoneWhenChangesUnavailable() {
+        when(this.service.getChanges(eq("a1b2c3d4-1")))
+                .thenReturn(Flux.error(new ChangesUnavailableException("a1b2c3d4-1")));
+
+        this.client.get()
+                .uri("/changes?since=a1b2c3d4-1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.GONE);
+    }
+
+    private ChangeEvent stubbedChangeEvent() {
+        return new ChangeEvent("a1b2c3d4", 1L, ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.UPDATED, 11L, Instant.now(), null);
+    }
+}
@@ -3,32 +3,46 @@ package ca.neilwhite.hrservice.controllers;
 import ca.neilwhite.hrservice.exceptions.DepartmentAlreadyExistsException;
 import ca.neilwhite.hrservice.exceptions.DepartmentNotFoundException;
 import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentStats;
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.OrgChartEntry;
 import ca.neilwhite.hrservice.models.requests.CreateDepartmentRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResult;
+import ca.neilwhite.hrservice.models.responses.BulkImportSummary;
+import ca.neilwhite.hrservice.models.responses.LookupResult;
 import ca.neilwhite.hrservice.repositories.DepartmentRepositoryImpl;
 import ca.neilwhite.hrservice.repositories.EmployeeRepository;
+import ca.neilwhite.hrservice.repositories.EmployeeRepositoryCustomImpl;
 import ca.neilwhite.hrservice.services.DepartmentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.r2dbc.spi.ConnectionFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ActiveProfiles("test")
 @WebFluxTest(controllers = DepartmentController.class)
+@Import(SimpleMeterRegistry.class)
 class DepartmentControllerTest {
 
     @Autowired
@@ -39,12 +53,14 @@ class DepartmentControllerTest {
     @MockBean
     private EmployeeRepository employeeRepository;
     @MockBean
+    private EmployeeRepositoryCustomImpl employeeRepositoryCustom;
+    @MockBean
     private DepartmentService service;
 
     @Test
     @DisplayName("GET /departments should return 1 Department")
     void getDepartments_shouldReturnDepartments() {
-        when(this.service.getDepartments()).thenReturn(Flux.just(stubbedDevDepartment()));
+        when(this.service.getDepartments(isNull(), isNull())).thenReturn(Flux.just(stubbedDevDepartment()));
 
         client.get()
                 .uri("/departments")
@@ -55,21 +71,171 @@ class DepartmentControllerTest {
     }
 
     @Test
-    @DisplayName("GET /departments/1 should return a Department")
+    @DisplayName("GET /departments?after=0&limit=1 should return 1 Department")
+    void getDepartmentsPage_shouldReturnDepartments() {
+        when(this.service.getDepartments(anyLong(), anyInt())).thenReturn(Flux.just(stubbedDevDepartment()));
+
+        client.get()
+                .uri("/departments?after=0&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Department.class).hasSize(1)
+                .consumeWith(departments -> assertEquals(List.of(stubbedDevDepartment()), departments.getResponseBody()));
+    }
+
+    @Test
+    @DisplayName("GET /departments?limit=0 should return 400")
+    void getDepartmentsPage_shouldRejectLimitBelowMinimum() {
+        client.get()
+                .uri("/departments?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(this.service, never()).getDepartments(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /departments as NDJSON should stream 1 Department")
+    void streamDepartments_shouldReturnDepartments() {
+        when(this.service.getDepartments(isNull(), isNull())).thenReturn(Flux.just(stubbedDevDepartment()));
+
+        client.get()
+                .uri("/departments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Department.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedDevDepartment(), department))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /departments/export as CSV should return a header and a line per entry")
+    void exportOrgChartCsv_shouldReturnCsv() {
+        when(this.service.exportOrgChart()).thenReturn(Flux.just(stubbedOrgChartEntry()));
+
+        client.get()
+                .uri("/departments/export")
+                .accept(MediaType.parseMediaType("text/csv"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo(OrgChartEntry.CSV_HEADER + "10,Software Development,MANAGER,10,Bob,Steeves,\"Director, Software\",true\n");
+    }
+
+    @Test
+    @DisplayName("GET /departments/export as NDJSON should stream entries")
+    void exportOrgChart_shouldStreamEntries() {
+        when(this.service.exportOrgChart()).thenReturn(Flux.just(stubbedOrgChartEntry()));
+
+        client.get()
+                .uri("/departments/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(OrgChartEntry.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNext(stubbedOrgChartEntry())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /departments?fields=id,name should return the requested fields")
+    void getDepartmentFields_shouldReturnFields() {
+        when(this.service.getDepartments(eq(List.of("id", "name")), isNull(), isNull()))
+                .thenReturn(Flux.just(Map.of("id", 10L, "name", "Software Development")));
+
+        client.get()
+                .uri("/departments?fields=id,name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"id\": 10, \"name\": \"Software Development\"}]", true);
+    }
+
+    @Test
+    @DisplayName("GET /departments?ids=1,3 should return a result per ID")
+    void getDepartmentsByIds_shouldReturnResults() {
+        when(this.service.getDepartmentsByIds(List.of(1L, 3L))).thenReturn(Flux.just(
+                LookupResult.found(1L, stubbedDevDepartment()),
+                LookupResult.missing(3L, "Department not found. Id: 3")));
+
+        client.get()
+                .uri("/departments?ids=1,3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].value.name").isEqualTo("Software Development")
+                .jsonPath("$[1].error").isEqualTo("Department not found. Id: 3");
+    }
+
+    @Test
+    @DisplayName("GET /departments/stats should return the stats of every Department")
+    void getDepartmentStats_shouldReturnStats() {
+        when(this.service.getDepartmentStats()).thenReturn(Flux.just(stubbedDepartmentStats()));
+
+        client.get()
+                .uri("/departments/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DepartmentStats.class)
+                .consumeWith(stats -> assertEquals(List.of(stubbedDepartmentStats()), stats.getResponseBody()));
+    }
+
+    @Test
+    @DisplayName("GET /departments/10/stats should return DepartmentNotFoundException")
+    void getDepartmentStatsById_shouldReturnDepartmentNotFound() {
+        when(this.service.getDepartmentStats(anyLong())).thenReturn(Mono.error(new DepartmentNotFoundException(10L)));
+
+        client.get()
+                .uri("/departments/10/stats")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("GET /departments/1 with a stale If-None-Match should return the Department tagged with its own version")
     void getDepartment_shouldReturnDepartment() {
-        when(this.service.getDepartment(anyLong())).thenReturn(Mono.just(stubbedDevDepartment()));
+        Department department = stubbedDevDepartment();
+        department.setVersion(2L);
+
+        when(this.service.getDepartmentVersion(anyLong())).thenReturn(Mono.just(1L));
+        when(this.service.getDepartment(anyLong())).thenReturn(Mono.just(department));
 
         client.get()
                 .uri("/departments/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
                 .expectBody(Department.class)
-                .consumeWith(department -> assertEquals(stubbedDevDepartment(), department.getResponseBody()));
+                .consumeWith(response -> assertEquals(stubbedDevDepartment(), response.getResponseBody()));
+    }
+
+    @Test
+    @DisplayName("GET /departments/1 with a matching If-None-Match should return 304 without loading the Department")
+    void getDepartment_shouldReturnNotModified() {
+        when(this.service.getDepartmentVersion(anyLong())).thenReturn(Mono.just(1L));
+
+        client.get()
+                .uri("/departments/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody().isEmpty();
+
+        verify(this.service, never()).getDepartment(anyLong());
     }
 
     @Test
     @DisplayName("GET /departments/10 should return DepartmentNotFoundException")
     void getDepartment_shouldReturnDepartmentNotFound() {
+        when(this.service.getDepartmentVersion(anyLong())).thenReturn(Mono.empty());
         when(this.service.getDepartment(anyLong())).thenThrow(new DepartmentNotFoundException(10L));
 
         client.get()
@@ -148,6 +314,25 @@ class DepartmentControllerTest {
                 .expectStatus().isBadRequest();
     }
 
+    @Test
+    @DisplayName("POST /departments/bulk should stream a result per Department and a summary")
+    void importDepartments_shouldReturnResults() {
+        when(this.service.importDepartments(any())).thenReturn(Flux.just(
+                BulkImportResult.imported(0, 3L),
+                BulkImportResult.failed(1, "Department with name \"HR\" already exists."),
+                new BulkImportSummary(1, 1, 10, 200.0)));
+
+        client.post().uri("/departments/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(Department.builder().name("Accounting").build(), Department.builder().name("HR").build()),
+                        Department.class)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .consumeWith(body -> assertEquals(3, body.getResponseBody().lines().count()));
+    }
+
     @Test
     @DisplayName("PUT /departments/1 should return a Department")
     void updateDepartment_shouldReturnDepartment() {
@@ -198,6 +383,15 @@ class DepartmentControllerTest {
                 .consumeWith(exception -> assertEquals("Department not found. Id: 10", exception.getResponseBody()));
     }
 
+    private DepartmentStats stubbedDepartmentStats() {
+        return new DepartmentStats(10L, "Software Development", 2, 1, 1, Map.of("Software Developer", 2L));
+    }
+
+    private OrgChartEntry stubbedOrgChartEntry() {
+        return new OrgChartEntry(10L, "Software Development", "MANAGER", 10L, "Bob", "Steeves",
+                "Director, Software", true);
+    }
+
     private Department stubbedDevDepartment() {
         return Department.builder()
                 .id(1L)
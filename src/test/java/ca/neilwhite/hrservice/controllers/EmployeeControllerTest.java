@@ -1,30 +1,43 @@
 package ca.neilwhite.hrservice.controllers;
 
 import ca.neilwhite.hrservice.exceptions.EmployeeNotFoundException;
+import ca.neilwhite.hrservice.exceptions.UnknownFieldException;
 import ca.neilwhite.hrservice.models.Employee;
 import ca.neilwhite.hrservice.models.requests.CreateEmployeeRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResult;
+import ca.neilwhite.hrservice.models.responses.BulkImportSummary;
+import ca.neilwhite.hrservice.models.responses.LookupResult;
 import ca.neilwhite.hrservice.repositories.EmployeeRepository;
+import ca.neilwhite.hrservice.repositories.EmployeeRepositoryCustomImpl;
 import ca.neilwhite.hrservice.services.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ActiveProfiles("test")
 @WebFluxTest(controllers = EmployeeController.class)
+@Import(SimpleMeterRegistry.class)
 class EmployeeControllerTest {
     @Autowired
     private WebTestClient client;
@@ -32,12 +45,14 @@ class EmployeeControllerTest {
     @MockBean
     private EmployeeRepository employeeRepository;
     @MockBean
+    private EmployeeRepositoryCustomImpl employeeRepositoryCustom;
+    @MockBean
     private EmployeeService service;
 
     @Test
     @DisplayName("GET /employees should return 1 Employee")
     void getEmployees_shouldReturnEmployees() {
-        when(this.service.getEmployees(isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
+        when(this.service.getEmployees(isNull(), isNull(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
 
         client.get()
                 .uri("/employees")
@@ -50,7 +65,7 @@ class EmployeeControllerTest {
     @Test
     @DisplayName("GET /employees?position=Software%20Developer should return 1 Employee")
     void getEmployeesByPosition_shouldReturnEmployee() {
-        when(this.service.getEmployees(anyString(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
+        when(this.service.getEmployees(anyString(), isNull(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
 
         client.get()
                 .uri("/employees?position=Software%20Developer")
@@ -63,7 +78,7 @@ class EmployeeControllerTest {
     @Test
     @DisplayName("GET /employees?fullTime=true should return 1 Employee")
     void getEmployeesByFullTime_shouldReturnEmployee() {
-        when(this.service.getEmployees(isNull(), anyBoolean())).thenReturn(Flux.just(stubbedEmployee()));
+        when(this.service.getEmployees(isNull(), anyBoolean(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
 
         client.get()
                 .uri("/employees?fullTime=true")
@@ -73,10 +88,35 @@ class EmployeeControllerTest {
                 .consumeWith(employees -> assertEquals(List.of(stubbedEmployee()), employees.getResponseBody()));
     }
 
+    @Test
+    @DisplayName("GET /employees?fields=id,firstName should return the requested fields")
+    void getEmployeeFields_shouldReturnFields() {
+        when(this.service.getEmployees(eq(List.of("id", "firstName")), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(Flux.just(Map.of("id", 11L, "firstName", "Neil")));
+
+        client.get()
+                .uri("/employees?fields=id,firstName")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"id\": 11, \"firstName\": \"Neil\"}]", true);
+    }
+
+    @Test
+    @DisplayName("GET /employees?fields=salary should return 400")
+    void getEmployeeFields_shouldRejectUnknownField() {
+        when(this.service.getEmployees(anyList(), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(Flux.error(new UnknownFieldException("salary")));
+
+        client.get()
+                .uri("/employees?fields=salary")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     @DisplayName("GET /employees?position=Software%20Developer&fullTime=true should return 1 Employee")
     void getEmployeesByPositionAndFullTime_shouldReturnEmployee() {
-        when(this.service.getEmployees(anyString(), anyBoolean())).thenReturn(Flux.just(stubbedEmployee()));
+        when(this.service.getEmployees(anyString(), anyBoolean(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
 
         client.get()
                 .uri("/employees?position=Software%20Developer&fullTime=true")
@@ -86,22 +126,134 @@ class EmployeeControllerTest {
                 .consumeWith(employees -> assertEquals(List.of(stubbedEmployee()), employees.getResponseBody()));
     }
 
+    @Test
+    @DisplayName("GET /employees?after=0&limit=1 should return 1 Employee")
+    void getEmployeesPage_shouldReturnEmployee() {
+        when(this.service.getEmployees(isNull(), isNull(), anyLong(), anyInt())).thenReturn(Flux.just(stubbedEmployee()));
+
+        client.get()
+                .uri("/employees?after=0&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Employee.class).hasSize(1)
+                .consumeWith(employees -> assertEquals(List.of(stubbedEmployee()), employees.getResponseBody()));
+    }
+
+    @Test
+    @DisplayName("GET /employees?limit=5000 should return 400")
+    void getEmployeesPage_shouldRejectLimitAboveMaximum() {
+        client.get()
+                .uri("/employees?limit=5000")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(this.service, never()).getEmployees(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /employees as NDJSON should stream 1 Employee")
+    void streamEmployees_shouldReturnEmployees() {
+        when(this.service.getEmployees(isNull(), isNull(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
+
+        client.get()
+                .uri("/employees")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Employee.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .consumeNextWith(employee -> assertEquals(stubbedEmployee(), employee))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /employees?ids=1,2 should return a result per ID")
+    void getEmployeesByIds_shouldReturnResults() {
+        when(this.service.getEmployeesByIds(List.of(1L, 2L))).thenReturn(Flux.just(
+                LookupResult.found(1L, stubbedEmployee()),
+                LookupResult.missing(2L, "Employee not found. Id: 2")));
+
+        client.get()
+                .uri("/employees?ids=1,2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].value.firstName").isEqualTo("Neil")
+                .jsonPath("$[1].error").isEqualTo("Employee not found. Id: 2");
+    }
+
+    @Test
+    @DisplayName("GET /employees/search?q=white should return 1 Employee")
+    void searchEmployees_shouldReturnEmployees() {
+        when(this.service.searchEmployees(eq("white"), eq(20), eq(0L))).thenReturn(Flux.just(stubbedEmployee()));
+
+        client.get()
+                .uri("/employees/search?q=white")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Employee.class)
+                .consumeWith(employees -> assertEquals(List.of(stubbedEmployee()), employees.getResponseBody()));
+    }
+
+    @Test
+    @DisplayName("GET /employees/search?q=white&offset=-1 should return 400")
+    void searchEmployees_shouldRejectNegativeOffset() {
+        client.get()
+                .uri("/employees/search?q=white&offset=-1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(this.service, never()).searchEmployees(any(), anyInt(), anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /employees/search?q=white&limit=0 should return 400")
+    void searchEmployees_shouldRejectLimitBelowMinimum() {
+        client.get()
+                .uri("/employees/search?q=white&limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(this.service, never()).searchEmployees(any(), anyInt(), anyLong());
+    }
+
     @Test
     @DisplayName("GET /employees/1 should return an Employee")
     void getEmployee_shouldReturnEmployee() {
-        when(this.service.getEmployee(anyLong())).thenReturn(Mono.just(stubbedEmployee()));
+        when(this.service.getEmployeeVersion(anyLong())).thenReturn(Mono.just(1L));
+        when(this.service.getEmployee(anyLong())).thenReturn(Mono.just(stubbedEmployee().toBuilder().version(1L).build()));
 
         client.get()
                 .uri("/employees/1")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
                 .expectBody(Employee.class)
                 .consumeWith(employee -> assertEquals(stubbedEmployee(), employee.getResponseBody()));
     }
 
+    @Test
+    @DisplayName("GET /employees/1 with a matching If-None-Match should return 304 without loading the Employee")
+    void getEmployee_shouldReturnNotModified() {
+        when(this.service.getEmployeeVersion(anyLong())).thenReturn(Mono.just(1L));
+
+        client.get()
+                .uri("/employees/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        verify(this.service, never()).getEmployee(anyLong());
+    }
+
     @Test
     @DisplayName("GET /employees/2 should return EmployeeNotFoundException")
     void getEmployee_shouldReturnEmployeeNotFound() {
+        when(this.service.getEmployeeVersion(anyLong())).thenReturn(Mono.empty());
         when(this.service.getEmployee(anyLong())).thenThrow(new EmployeeNotFoundException(2L));
 
         client.get()
@@ -133,6 +285,23 @@ class EmployeeControllerTest {
                 .consumeWith(employee -> assertEquals(newEmployee, employee.getResponseBody()));
     }
 
+    @Test
+    @DisplayName("POST /employees/bulk should stream a result per Employee and a summary")
+    void importEmployees_shouldReturnResults() {
+        when(this.service.importEmployees(any())).thenReturn(Flux.just(
+                BulkImportResult.imported(0, 6L),
+                new BulkImportSummary(1, 0, 10, 100.0)));
+
+        client.post().uri("/employees/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(new CreateEmployeeRequest("Bob", "Walker", "Dog Walker", false)), CreateEmployeeRequest.class)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .consumeWith(body -> assertEquals(2, body.getResponseBody().lines().count()));
+    }
+
     @Test
     @DisplayName("PUT /employees/1 should return an Employee")
     void updateEmployee_shouldReturnEmployee() {
@@ -0,0 +1,170 @@
+package ca.neilwhite.hrservice.controllers;
+
+import ca.neilwhite.hrservice.config.GraphQlConfiguration;
+import ca.neilwhite.hrservice.exceptions.EmployeeNotFoundException;
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.repositories.DepartmentRepositoryImpl;
+import ca.neilwhite.hrservice.repositories.EmployeeRepository;
+import ca.neilwhite.hrservice.repositories.EmployeeRepositoryCustomImpl;
+import ca.neilwhite.hrservice.services.DepartmentService;
+import ca.neilwhite.hrservice.services.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@GraphQlTest(controllers = {DepartmentGraphQlController.class, EmployeeGraphQlController.class})
+@Import(GraphQlConfiguration.class)
+class GraphQlControllerTest {
+
+    @Autowired
+    private GraphQlTester tester;
+
+    @MockBean
+    private DepartmentRepositoryImpl repository;
+    @MockBean
+    private EmployeeRepository employeeRepository;
+    @MockBean
+    private EmployeeRepositoryCustomImpl employeeRepositoryCustom;
+    @MockBean
+    private DepartmentService departmentService;
+    @MockBean
+    private EmployeeService employeeService;
+
+    @Test
+    @DisplayName("departments should load the managers and employees of all Departments with one call each")
+    void departments_shouldBatchMembers() {
+        when(this.departmentService.getDepartmentsWithoutMembers(isNull(), eq(100)))
+                .thenReturn(Flux.just(stubbedDevDepartment(), stubbedHRDepartment()));
+        when(this.departmentService.getManagersByDepartmentIds(anyCollection()))
+                .thenReturn(Mono.just(Map.of(10L, stubbedManager())));
+        when(this.departmentService.getEmployeesByDepartmentIds(anyCollection()))
+                .thenReturn(Mono.just(Map.of(10L, List.of(stubbedEmployee()))));
+
+        this.tester.document("{ departments { name manager { firstName } employees { id } } }")
+                .execute()
+                .path("departments[*].name").entityList(String.class).containsExactly("Software Development", "HR")
+                .path("departments[0].manager.firstName").entity(String.class).isEqualTo("Bob")
+                .path("departments[1].manager").valueIsNull()
+                .path("departments[0].employees[*].id").entityList(String.class).containsExactly("11")
+                .path("departments[1].employees").entityList(Object.class).hasSize(0);
+
+        verify(this.departmentService, times(1)).getManagersByDepartmentIds(List.of(10L, 20L));
+        verify(this.departmentService, times(1)).getEmployeesByDepartmentIds(List.of(10L, 20L));
+    }
+
+    @Test
+    @DisplayName("departments should not load members that are not selected")
+    void departments_shouldNotLoadUnselectedMembers() {
+        when(this.departmentService.getDepartmentsWithoutMembers(isNull(), eq(100)))
+                .thenReturn(Flux.just(stubbedDevDepartment(), stubbedHRDepartment()));
+
+        this.tester.document("{ departments { id name } }")
+                .execute()
+                .path("departments[*].id").entityList(String.class).containsExactly("10", "20");
+
+        verify(this.departmentService, times(0)).getManagersByDepartmentIds(anyCollection());
+        verify(this.departmentService, times(0)).getEmployeesByDepartmentIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("employees should load the Departments of all Employees with one call")
+    void employees_shouldBatchDepartments() {
+        when(this.employeeService.getEmployees(isNull(), isNull(), isNull(), eq(100)))
+                .thenReturn(Flux.just(stubbedManager(), stubbedEmployee()));
+        when(this.departmentService.getDepartmentsByMemberIds(anyCollection()))
+                .thenReturn(Mono.just(Map.of(10L, stubbedDevDepartment(), 11L, stubbedDevDepartment())));
+
+        this.tester.document("{ employees { firstName department { name } } }")
+                .execute()
+                .path("employees[*].department.name").entityList(String.class)
+                .containsExactly("Software Development", "Software Development");
+
+        verify(this.departmentService, times(1)).getDepartmentsByMemberIds(List.of(10L, 11L));
+    }
+
+    @Test
+    @DisplayName("departments(limit: 5000) should return at most 1000 Departments")
+    void departments_shouldCapLimit() {
+        when(this.departmentService.getDepartmentsWithoutMembers(isNull(), eq(1000)))
+                .thenReturn(Flux.just(stubbedDevDepartment()));
+
+        this.tester.document("{ departments(limit: 5000) { id } }")
+                .execute()
+                .path("departments[*].id").entityList(String.class).containsExactly("10");
+    }
+
+    @Test
+    @DisplayName("departments nested beyond the maximum depth should be rejected without loading")
+    void departments_shouldRejectDeepQuery() {
+        this.tester.document("{ departments { employees { department { employees { department { name } } } } } }")
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage() != null && error.getMessage().contains("maximum query depth"));
+
+        verify(this.departmentService, times(0)).getDepartmentsWithoutMembers(any(), any());
+    }
+
+    @Test
+    @DisplayName("employee(3) should return null")
+    void employee_shouldReturnNull() {
+        when(this.employeeService.getEmployee(3L)).thenReturn(Mono.error(new EmployeeNotFoundException(3L)));
+
+        this.tester.document("{ employee(id: 3) { firstName } }")
+                .execute()
+                .path("employee").valueIsNull();
+    }
+
+    private static Department stubbedDevDepartment() {
+        return Department.builder()
+                .id(10L)
+                .name("Software Development")
+                .build();
+    }
+
+    private static Department stubbedHRDepartment() {
+        return Department.builder()
+                .id(20L)
+                .name("HR")
+                .build();
+    }
+
+    private static Employee stubbedManager() {
+        return Employee.builder()
+                .id(10L)
+                .firstName("Bob")
+                .lastName("Steeves")
+                .position("Director of Software Development")
+                .fullTime(true)
+                .build();
+    }
+
+    private static Employee stubbedEmployee() {
+        return Employee.builder()
+                .id(11L)
+                .firstName("Neil")
+                .lastName("White")
+                .position("Software Developer")
+                .fullTime(true)
+                .build();
+    }
+}
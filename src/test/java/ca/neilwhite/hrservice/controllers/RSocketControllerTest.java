@@ -0,0 +1,99 @@
+package ca.neilwhite.hrservice.controllers;
+
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.requests.StreamDepartmentsRequest;
+import ca.neilwhite.hrservice.models.requests.StreamEmployeesRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.rsocket.context.LocalRSocketServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.test.annotation.DirtiesContext;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Testcontainers
+class RSocketControllerTest {
+    @Autowired
+    private RSocketRequester.Builder builder;
+    @LocalRSocketServerPort
+    private int port;
+
+    private RSocketRequester requester;
+
+    @BeforeEach
+    void connect() {
+        this.requester = this.builder.tcp("localhost", this.port);
+    }
+
+    @AfterEach
+    void disconnect() {
+        this.requester.dispose();
+    }
+
+    @Test
+    @DisplayName("employees.stream should emit only as many Employees as requested")
+    void streamEmployees_shouldHonourDemand() {
+        StepVerifier.create(this.requester.route("employees.stream").retrieveFlux(Employee.class), 2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("employees.stream with fullTime true after 11 should return 2 Employees")
+    void streamEmployees_shouldFilter() {
+        this.requester.route("employees.stream")
+                .data(new StreamEmployeesRequest(null, true, 11L))
+                .retrieveFlux(Employee.class)
+                .map(Employee::getId)
+                .as(StepVerifier::create)
+                .expectNext(13L, 14L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("departments.stream after 10 should return HR")
+    void streamDepartments_shouldReturnDepartments() {
+        this.requester.route("departments.stream")
+                .data(new StreamDepartmentsRequest(10L))
+                .retrieveFlux(Department.class)
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> {
+                    assertEquals("HR", department.getName());
+                    assertEquals(1, department.getEmployees().size());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("departments.import should return a result per Department and a summary")
+    void importDepartments_shouldImportDepartments() {
+        Flux<Department> departments = Flux.just(
+                Department.builder().name("Accounting").build(),
+                Department.builder().name("HR").build());
+
+        this.requester.route("departments.import")
+                .data(departments, Department.class)
+                .retrieveFlux(Map.class)
+                .as(StepVerifier::create)
+                .consumeNextWith(result -> assertEquals(0, result.get("index")))
+                .consumeNextWith(result -> assertEquals(1, result.get("index")))
+                .consumeNextWith(summary -> assertEquals(1, summary.get("imported")))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,220 @@
+package ca.neilwhite.hrservice.load;
+
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.requests.CreateEmployeeRequest;
+import ca.neilwhite.hrservice.repositories.DepartmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives mixed read and write traffic against the Department and Employee endpoints and reports latency percentiles
+ * and throughput per endpoint. Excluded from the default build; run with {@code ./mvnw -Pload test}, sized with
+ * {@code -Dload.departments}, {@code -Dload.employees-per-department}, {@code -Dload.requests} and
+ * {@code -Dload.concurrency}. The report is logged and written to {@code target/load-test-report.csv}.
+ */
+@Slf4j
+@Tag("load")
+@Testcontainers
+@DirtiesContext
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoadTest {
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private DepartmentRepository repository;
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Value("${load.departments:50}")
+    private int departments;
+    @Value("${load.employees-per-department:20}")
+    private int employeesPerDepartment;
+    @Value("${load.requests:10000}")
+    private int requests;
+    @Value("${load.concurrency:32}")
+    private int concurrency;
+
+    private WebClient client;
+    private final List<Long> departmentIds = new ArrayList<>();
+    private final List<Long> employeeIds = new ArrayList<>();
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        this.client = WebClient.create("http://localhost:" + this.port);
+
+        this.advanceSequences()
+                .thenMany(Flux.range(0, this.departments))
+                .concatMap(department -> this.repository.save(Department.builder()
+                        .name("Load Department " + department)
+                        .manager(seededEmployee(department, -1))
+                        .employees(IntStream.range(0, this.employeesPerDepartment)
+                                .mapToObj(employee -> seededEmployee(department, employee))
+                                .toList())
+                        .build()))
+                .doOnNext(department -> {
+                    this.departmentIds.add(department.getId());
+                    department.getEmployees().forEach(employee -> this.employeeIds.add(employee.getId()));
+                })
+                .blockLast();
+    }
+
+    @Test
+    @DisplayName("Mixed traffic should complete without errors")
+    void mixedTraffic_shouldComplete() throws IOException {
+        long start = System.nanoTime();
+
+        Flux.range(0, this.requests)
+                .flatMap(request -> this.nextRequest(), this.concurrency)
+                .blockLast(Duration.ofMinutes(30));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        this.report(elapsed);
+
+        assertEquals(0, this.failures.get());
+    }
+
+    /**
+     * Moves the ID sequences past the fixture rows, which data.sql inserts with explicit IDs, so seeded rows do not
+     * collide with them.
+     */
+    private Mono<Void> advanceSequences() {
+        return Flux.just("departments", "employees")
+                .concatMap(table -> this.databaseClient.sql(String.format(
+                                "SELECT setval(pg_get_serial_sequence('%1$s', 'id'), coalesce(max(id), 0) + 1, false) FROM %1$s",
+                                table))
+                        .map((row, metadata) -> row.get(0, Long.class))
+                        .one())
+                .then();
+    }
+
+    /**
+     * Returns a random request, weighted towards reads.
+     */
+    private Mono<Void> nextRequest() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+
+        if (roll < 35) {
+            return this.exchange("GET /departments/{id}", this.client.get()
+                    .uri("/departments/{id}", this.randomId(this.departmentIds)));
+        } else if (roll < 50) {
+            return this.exchange("GET /departments/{id}/employees", this.client.get()
+                    .uri("/departments/{id}/employees?fullTime=true", this.randomId(this.departmentIds)));
+        } else if (roll < 60) {
+            return this.exchange("GET /departments", this.client.get()
+                    .uri("/departments?after={after}&limit=20", this.randomId(this.departmentIds)));
+        } else if (roll < 80) {
+            return this.exchange("GET /employees/{id}", this.client.get()
+                    .uri("/employees/{id}", this.randomId(this.employeeIds)));
+        } else if (roll < 90) {
+            return this.exchange("GET /employees", this.client.get()
+                    .uri("/employees?position=Developer&after={after}&limit=50", this.randomId(this.employeeIds)));
+        } else if (roll < 95) {
+            long id = this.created.incrementAndGet();
+            return this.exchange("POST /employees", this.client.post()
+                    .uri("/employees")
+                    .bodyValue(new CreateEmployeeRequest("Created-" + id, "Created-" + id, "Developer", true)));
+        } else {
+            long id = this.randomId(this.employeeIds);
+            return this.exchange("PUT /employees/{id}", this.client.put()
+                    .uri("/employees/{id}?firstName=First-{id}&lastName=Last-{id}&position={position}&fullTime={fullTime}",
+                            Map.of("id", id,
+                                    "position", roll % 2 == 0 ? "Developer" : "Senior Developer",
+                                    "fullTime", roll % 2 == 0)));
+        }
+    }
+
+    /**
+     * Sends a request, recording its latency under an endpoint or counting it as failed on an error response.
+     */
+    private Mono<Void> exchange(String endpoint, WebClient.RequestHeadersSpec<?> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+
+            return request.retrieve()
+                    .toBodilessEntity()
+                    .doOnSuccess(response -> this.latencies
+                            .computeIfAbsent(endpoint, key -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(System.nanoTime() - start))
+                    .doOnError(error -> {
+                        log.warn("{} failed: {}", endpoint, error.getMessage());
+                        this.failures.incrementAndGet();
+                    })
+                    .onErrorResume(error -> Mono.empty())
+                    .then();
+        });
+    }
+
+    private void report(Duration elapsed) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,throughput_per_s,p50_ms,p99_ms,max_ms");
+
+        new TreeMap<>(this.latencies).forEach((endpoint, samples) -> {
+            List<Long> sorted = new ArrayList<>(samples);
+            Collections.sort(sorted);
+
+            lines.add(String.format("%s,%d,%.1f,%.2f,%.2f,%.2f", endpoint, sorted.size(),
+                    sorted.size() / (elapsed.toNanos() / 1e9),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.get(sorted.size() - 1) / 1e6));
+        });
+
+        log.info("Load test: {} requests, {} failures in {} ms\n{}", this.requests, this.failures.get(),
+                elapsed.toMillis(), String.join("\n", lines));
+
+        Path report = Path.of("target", "load-test-report.csv");
+        Files.createDirectories(report.getParent());
+        Files.write(report, lines);
+    }
+
+    private long randomId(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+
+    private static Employee seededEmployee(int department, int employee) {
+        String suffix = department + "-" + employee;
+
+        return Employee.builder()
+                .firstName("First-" + suffix)
+                .lastName("Last-" + suffix)
+                .position(employee < 0 ? "Manager" : "Developer")
+                .fullTime(employee % 2 == 0)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package ca.neilwhite.hrservice.repositories;
+
+import ca.neilwhite.hrservice.HRServiceApplication;
+import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.Employee;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Runs two application contexts against one database, as two replicas would, and checks that a write through one
+ * clears the Department cache of the other well before the cached entry expires.
+ */
+@Testcontainers
+class CacheInvalidationListenerTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14");
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startReplicas() {
+        first = startReplica();
+        second = startReplica();
+    }
+
+    @AfterAll
+    static void stopReplicas() {
+        second.close();
+        first.close();
+    }
+
+    @Test
+    @DisplayName("update() on one replica should clear the Department caches of another")
+    void update_shouldInvalidateOtherReplica() {
+        DepartmentRepository writer = first.getBean(DepartmentRepository.class);
+        DepartmentRepository reader = second.getBean(DepartmentRepository.class);
+
+        reader.findById(20L)
+                .as(StepVerifier::create)
+                .expectNextMatches(department -> department.getName().equals("HR"))
+                .verifyComplete();
+
+        writer.findById(20L)
+                .flatMap(department -> writer.update(Department.builder()
+                        .id(department.getId())
+                        .name("Human Resources")
+                        .manager(department.getManager().orElse(null))
+                        .employees(department.getEmployees())
+                        .build()))
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        awaitDepartment(reader, 20L, department -> department.getName().equals("Human Resources"))
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Employee update() on one replica should clear the Department caches of another")
+    void employeeUpdate_shouldInvalidateOtherReplica() {
+        EmployeeRepository writer = first.getBean(EmployeeRepository.class);
+        DepartmentRepository reader = second.getBean(DepartmentRepository.class);
+
+        reader.findById(10L)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        writer.update(11L, "Neil", "White", "Senior Software Developer", true)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        awaitDepartment(reader, 10L, department -> department.getEmployees().stream()
+                .map(Employee::getPosition)
+                .anyMatch("Senior Software Developer"::equals))
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    private static Mono<Department> awaitDepartment(DepartmentRepository repository, long id,
+                                                    Predicate<Department> condition) {
+        return Mono.defer(() -> repository.findById(id))
+                .filter(condition)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(100)))
+                .timeout(Duration.ofSeconds(10));
+    }
+
+    private static ConfigurableApplicationContext startReplica() {
+        return new SpringApplicationBuilder(HRServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        String.format("spring.r2dbc.url=r2dbc:postgresql://%s:%d/%s", postgres.getHost(),
+                                postgres.getFirstMappedPort(), postgres.getDatabaseName()),
+                        "spring.r2dbc.username=" + postgres.getUsername(),
+                        "spring.r2dbc.password=" + postgres.getPassword(),
+                        "hr-service.repositories.cache.time-to-live=10m")
+                .run();
+    }
+}
@@ -0,0 +1,220 @@
+package ca.neilwhite.hrservice.repositories;
+
+import ca.neilwhite.hrservice.models.Department;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDepartmentRepositoryTest {
+    @Mock
+    private DepartmentRepositoryImpl delegate;
+    private MeterRegistry registry;
+    private CachingDepartmentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.registry = new SimpleMeterRegistry();
+        this.repository = new CachingDepartmentRepository(this.delegate, new RepositoryProperties(), this.registry);
+    }
+
+    @Test
+    @DisplayName("findById(1) should load a Department once")
+    void findById_shouldCacheDepartment() {
+        when(this.delegate.findById(anyLong())).thenReturn(Mono.just(stubbedDepartment()));
+
+        this.repository.findById(1L)
+                .then(this.repository.findById(1L))
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedDepartment(), department))
+                .verifyComplete();
+
+        verify(this.delegate, times(1)).findById(1L);
+        assertEquals(1.0, this.registry.get("cache.gets").tag("cache", "departments.id").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("findById(3) should not cache a missing Department")
+    void findById_shouldNotCacheMissingDepartment() {
+        when(this.delegate.findById(anyLong())).thenReturn(Mono.empty());
+
+        this.repository.findById(3L)
+                .then(this.repository.findById(3L))
+                .as(StepVerifier::create)
+                .verifyComplete();
+
+        verify(this.delegate, times(2)).findById(3L);
+    }
+
+    @Test
+    @DisplayName("findAllByIds([1, 3]) should only load the Departments that are not cached")
+    void findAllByIds_shouldLoadMisses() {
+        Department engineering = Department.builder().id(3L).name("Engineering").build();
+
+        when(this.delegate.findById(anyLong())).thenReturn(Mono.just(stubbedDepartment()));
+        when(this.delegate.findAllByIds(List.of(3L))).thenReturn(Flux.just(engineering));
+
+        this.repository.findById(1L)
+                .thenMany(this.repository.findAllByIds(List.of(1L, 3L)))
+                .collectList()
+                .as(StepVerifier::create)
+                .consumeNextWith(departments -> assertEquals(Set.of(stubbedDepartment(), engineering), Set.copyOf(departments)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findByName(name) should load a Department once")
+    void findByName_shouldCacheDepartment() {
+        when(this.delegate.findByName("Accounting")).thenReturn(Mono.just(stubbedDepartment()));
+
+        this.repository.findByName("Accounting")
+                .then(this.repository.findByName("Accounting"))
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedDepartment(), department))
+                .verifyComplete();
+
+        verify(this.delegate, times(1)).findByName("Accounting");
+    }
+
+    @Test
+    @DisplayName("save(department) should invalidate cached Departments")
+    void save_shouldInvalidateCache() {
+        when(this.delegate.findById(anyLong())).thenReturn(Mono.just(stubbedDepartment()));
+        when(this.delegate.save(any(Department.class))).thenReturn(Mono.just(stubbedDepartment()));
+
+        this.repository.findById(1L)
+                .then(this.repository.save(stubbedDepartment()))
+                .then(this.repository.findById(1L))
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(this.delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("delete(department) should invalidate cached Departments")
+    void delete_shouldInvalidateCache() {
+        when(this.delegate.findById(anyLong())).thenReturn(Mono.just(stubbedDepartment()));
+        when(this.delegate.delete(any(Department.class))).thenReturn(Mono.empty());
+
+        this.repository.findById(1L)
+                .then(this.repository.delete(stubbedDepartment()))
+                .then(this.repository.findById(1L))
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(this.delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("save(department) should invalidate cached Departments before the write starts")
+    void save_shouldInvalidateCacheBeforeWrite() {
+        Sinks.One<Department> write = Sinks.one();
+
+        when(this.delegate.findById(anyLong())).thenReturn(Mono.just(stubbedDepartment()));
+        when(this.delegate.save(any(Department.class))).thenReturn(write.asMono());
+
+        this.repository.findById(1L).block();
+        this.repository.save(stubbedDepartment()).subscribe();
+        this.repository.findById(1L).block();
+
+        verify(this.delegate, times(2)).findById(1L);
+        write.tryEmitValue(stubbedDepartment());
+    }
+
+    @Test
+    @DisplayName("findById(1) should not keep a load that was in flight when the cache was cleared")
+    void findById_shouldNotCacheLoadInFlightDuringInvalidation() {
+        Sinks.One<Department> load = Sinks.one();
+
+        when(this.delegate.findById(anyLong())).thenReturn(load.asMono(), Mono.just(stubbedDepartment()));
+
+        StepVerifier inFlight = this.repository.findById(1L)
+                .as(StepVerifier::create)
+                .expectNext(stubbedDepartment())
+                .expectComplete()
+                .verifyLater();
+
+        this.repository.invalidateAll();
+        load.tryEmitValue(stubbedDepartment());
+        inFlight.verify();
+
+        this.repository.findById(1L)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(this.delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("findById(1) should load with the caller's Context")
+    void findById_shouldLoadWithCallerContext() {
+        when(this.delegate.findById(anyLong())).thenReturn(Mono.deferContextual(context ->
+                Mono.just(stubbedDepartment()).filter(department -> context.hasKey("caller"))));
+
+        this.repository.findById(1L)
+                .contextWrite(Context.of("caller", "test"))
+                .as(StepVerifier::create)
+                .expectNext(stubbedDepartment())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("invalidate(1) should only remove Department 1")
+    void invalidate_shouldOnlyRemoveDepartment() {
+        Department engineering = Department.builder().id(3L).name("Engineering").build();
+
+        when(this.delegate.findById(1L)).thenReturn(Mono.just(stubbedDepartment()));
+        when(this.delegate.findById(3L)).thenReturn(Mono.just(engineering));
+        when(this.delegate.findByName("Accounting")).thenReturn(Mono.just(stubbedDepartment()));
+        when(this.delegate.findByName("Engineering")).thenReturn(Mono.just(engineering));
+
+        this.repository.findById(1L)
+                .then(this.repository.findById(3L))
+                .then(this.repository.findByName("Accounting"))
+                .then(this.repository.findByName("Engineering"))
+                .block();
+        this.repository.invalidate(1L);
+        this.repository.findById(1L)
+                .then(this.repository.findById(3L))
+                .then(this.repository.findByName("Accounting"))
+                .then(this.repository.findByName("Engineering"))
+                .block();
+
+        verify(this.delegate, times(2)).findById(1L);
+        verify(this.delegate, times(1)).findById(3L);
+        verify(this.delegate, times(2)).findByName("Accounting");
+        verify(this.delegate, times(1)).findByName("Engineering");
+    }
+
+    private static Department stubbedDepartment() {
+        return Department.builder()
+                .id(1L)
+                .name("Accounting")
+                .build();
+    }
+}
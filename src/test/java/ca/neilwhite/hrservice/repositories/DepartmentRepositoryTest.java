@@ -1,19 +1,27 @@
 package ca.neilwhite.hrservice.repositories;
 
 import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentField;
+import ca.neilwhite.hrservice.models.DepartmentStats;
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.repositories.RepositoryProperties.FetchMode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.test.annotation.DirtiesContext;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -23,6 +31,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 class DepartmentRepositoryTest {
     @Autowired
     private DepartmentRepositoryImpl repository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DatabaseClient client;
 
     @Test
     @DisplayName("findAll() should return 2 Departments")
@@ -34,6 +46,47 @@ class DepartmentRepositoryTest {
                 .verify();
     }
 
+    @ParameterizedTest
+    @EnumSource(FetchMode.class)
+    @DisplayName("findAll() should return the same Departments in every fetch mode")
+    void findAll_shouldReturnDepartmentsForFetchMode(FetchMode fetchMode) {
+        this.repositoryWithFetchMode(fetchMode).findAll()
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedDevDepartment(), department))
+                .consumeNextWith(department -> assertEquals(stubbedHRDepartment(), department))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @EnumSource(FetchMode.class)
+    @DisplayName("findAll(10, 1) should return the Department after 10 in every fetch mode")
+    void findAllAfter_shouldReturnDepartmentPageForFetchMode(FetchMode fetchMode) {
+        this.repositoryWithFetchMode(fetchMode).findAll(10L, 1)
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedHRDepartment(), department))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @EnumSource(FetchMode.class)
+    @DisplayName("findAll(null, 1) should return the first Department in every fetch mode")
+    void findAllLimit_shouldReturnDepartmentPageForFetchMode(FetchMode fetchMode) {
+        this.repositoryWithFetchMode(fetchMode).findAll(null, 1)
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedDevDepartment(), department))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @EnumSource(FetchMode.class)
+    @DisplayName("findById(20) should return the same Department in every fetch mode")
+    void findById_shouldReturnDepartmentForFetchMode(FetchMode fetchMode) {
+        this.repositoryWithFetchMode(fetchMode).findById(20)
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedHRDepartment(), department))
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("findById(10) should return a Department")
     void findById_shouldReturnDepartment() {
@@ -70,6 +123,176 @@ class DepartmentRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("findDepartmentEmployees(10, null) should return 2 Employees")
+    void findDepartmentEmployees_shouldReturnEmployees() {
+        this.repository.findDepartmentEmployees(10L, null)
+                .as(StepVerifier::create)
+                .expectNextSequence(stubbedDevDepartment().getEmployees())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findDepartmentEmployees(10, false) should return 1 Employee")
+    void findDepartmentEmployees_PartTime_shouldReturnEmployee() {
+        this.repository.findDepartmentEmployees(10L, false)
+                .as(StepVerifier::create)
+                .expectNext(stubbedDevDepartment().getEmployees().get(1))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("exportOrgChart() should return 5 entries, managers first")
+    void exportOrgChart_shouldReturnEntries() {
+        this.repository.exportOrgChart()
+                .map(entry -> entry.role() + ":" + entry.employeeId())
+                .as(StepVerifier::create)
+                .expectNext("MANAGER:10", "EMPLOYEE:11", "EMPLOYEE:12", "MANAGER:13", "EMPLOYEE:14")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAllByIds([20, 10, 99]) should return 2 Departments ordered by ID")
+    void findAllByIds_shouldReturnDepartments() {
+        this.repository.findAllByIds(List.of(20L, 10L, 99L))
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedDevDepartment(), department))
+                .consumeNextWith(department -> assertEquals(stubbedHRDepartment(), department))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAllWithoutMembers(null, 1) should return the first Department without members")
+    void findAllWithoutMembers_shouldReturnDepartmentPage() {
+        this.repository.findAllWithoutMembers(null, 1)
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(
+                        Department.builder().id(10L).name("Software Development").build(), department))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findManagersByDepartmentIds([10, 20, 99]) should return the managers of 2 Departments")
+    void findManagersByDepartmentIds_shouldReturnManagers() {
+        this.repository.findManagersByDepartmentIds(List.of(10L, 20L, 99L))
+                .as(StepVerifier::create)
+                .expectNext(Map.of(
+                        10L, stubbedDevDepartment().getManager().get(),
+                        20L, stubbedHRDepartment().getManager().get()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findEmployeesByDepartmentIds([10, 20]) should return the employees of 2 Departments")
+    void findEmployeesByDepartmentIds_shouldReturnEmployees() {
+        this.repository.findEmployeesByDepartmentIds(List.of(10L, 20L))
+                .as(StepVerifier::create)
+                .consumeNextWith(employees -> {
+                    assertEquals(stubbedDevDepartment().getEmployees(), List.copyOf(employees.get(10L)));
+                    assertEquals(stubbedHRDepartment().getEmployees(), List.copyOf(employees.get(20L)));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAllWithoutMembersByMemberIds([10, 14, 99]) should return the Departments of 2 Employees")
+    void findAllWithoutMembersByMemberIds_shouldReturnDepartments() {
+        this.repository.findAllWithoutMembersByMemberIds(List.of(10L, 14L, 99L))
+                .as(StepVerifier::create)
+                .expectNext(Map.of(
+                        10L, Department.builder().id(10L).name("Software Development").build(),
+                        14L, Department.builder().id(20L).name("HR").build()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("findAllWithoutMembersByMemberIds([10]) should prefer the Department an Employee belongs to")
+    void findAllWithoutMembersByMemberIds_shouldPreferMembership() {
+        this.client.sql("INSERT INTO department_employees(department_id, employee_id) VALUES (20, 10)")
+                .then()
+                .then(this.repository.findAllWithoutMembersByMemberIds(List.of(10L)))
+                .as(StepVerifier::create)
+                .expectNext(Map.of(10L, Department.builder().id(20L).name("HR").build()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAll([id, name], null, null) should return the id and name of 2 Departments")
+    void findAllFields_shouldReturnRequestedFields() {
+        this.repository.findAll(EnumSet.of(DepartmentField.ID, DepartmentField.NAME), null, null)
+                .as(StepVerifier::create)
+                .expectNext(Map.of("id", 10L, "name", "Software Development"))
+                .expectNext(Map.of("id", 20L, "name", "HR"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAll([name, manager], 10, null) should return the name and manager of HR")
+    void findAllFieldsWithManager_shouldJoinManager() {
+        this.repository.findAll(EnumSet.of(DepartmentField.NAME, DepartmentField.MANAGER), 10L, null)
+                .as(StepVerifier::create)
+                .expectNext(Map.of("name", "HR", "manager", stubbedHRDepartment().getManager().get()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAll([id, employees], null, 1) should return the id and employees of Software Development")
+    void findAllFieldsWithEmployees_shouldLoadEmployees() {
+        this.repository.findAll(EnumSet.of(DepartmentField.ID, DepartmentField.EMPLOYEES), null, 1)
+                .as(StepVerifier::create)
+                .expectNext(Map.of("id", 10L, "employees", stubbedDevDepartment().getEmployees()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findStats() should return the member counts of 2 Departments")
+    void findStats_shouldReturnStats() {
+        this.repository.findStats()
+                .as(StepVerifier::create)
+                .expectNext(stubbedDevDepartmentStats())
+                .expectNext(new DepartmentStats(20L, "HR", 2, 2, 0, Map.of(
+                        "Director of Human Resources", 1L,
+                        "Intraday Analyst", 1L)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findStats(10) should return the member counts of Software Development")
+    void findStatsById_shouldReturnStats() {
+        this.repository.findStats(10L)
+                .as(StepVerifier::create)
+                .expectNext(stubbedDevDepartmentStats())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findStats(99) should not return stats")
+    void findStatsById_shouldNotReturnStats() {
+        this.repository.findStats(99L)
+                .as(StepVerifier::create)
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("existsById(10) should return true")
+    void existsById_shouldReturnTrue() {
+        this.repository.existsById(10L)
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("existsById(3) should return false")
+    void existsById_shouldReturnFalse() {
+        this.repository.existsById(3L)
+                .as(StepVerifier::create)
+                .expectNext(false)
+                .verifyComplete();
+    }
+
     @DirtiesContext
     @ParameterizedTest
     @MethodSource("newDepartmentProvider")
@@ -94,6 +317,121 @@ class DepartmentRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("save(department) should not save a Department with an existing name")
+    void save_shouldNotSaveExistingName() {
+        this.repository.save(Department.builder().name("HR").build())
+                .as(StepVerifier::create)
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("save(department) should not save a missing Department")
+    void save_shouldNotSaveMissingDepartment() {
+        this.repository.save(Department.builder().id(3L).name("Accounting").build())
+                .as(StepVerifier::create)
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("insertAll(departments) should insert new Departments with their members")
+    void insertAll_shouldInsertDepartments() {
+        Department accounting = Department.builder()
+                .name("Accounting")
+                .manager(Employee.builder()
+                        .firstName("Sally")
+                        .lastName("Smith")
+                        .position("Director of Accounting")
+                        .fullTime(true)
+                        .build())
+                .employees(List.of(stubbedHRDepartment().getEmployees().get(0)))
+                .build();
+
+        this.repository.insertAll(List.of(accounting, Department.builder().name("HR").build()))
+                .collectList()
+                .doOnNext(inserted -> assertEquals(List.of(accounting), inserted))
+                .flatMap(inserted -> this.repository.findById(accounting.getId()))
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(accounting, department))
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("update(department) should keep the current manager")
+    void update_shouldKeepManager() {
+        Department renamedDepartment = stubbedDevDepartment();
+        renamedDepartment.setName("Software Engineering");
+        renamedDepartment.setManager(null);
+
+        Department expectedDepartment = stubbedDevDepartment();
+        expectedDepartment.setName("Software Engineering");
+
+        this.repository.update(renamedDepartment)
+                .flatMap(department -> this.repository.findById(department.getId()))
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(expectedDepartment, department))
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("update(department) should increment the Department version")
+    void update_shouldIncrementVersion() {
+        Department renamedDepartment = stubbedDevDepartment();
+        renamedDepartment.setName("Software Engineering");
+
+        this.repository.findVersion(10L)
+                .flatMap(before -> this.repository.update(renamedDepartment)
+                        .then(this.repository.findVersion(10L))
+                        .map(after -> after > before))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("Employee update() should increment the versions of the Employee and its Department")
+    void employeeUpdate_shouldIncrementDepartmentVersion() {
+        Mono.zip(this.repository.findVersion(10L), this.employeeRepository.findVersionById(11L))
+                .flatMap(before -> this.employeeRepository.update(11L, "Neil", "White", "Senior Software Developer", true)
+                        .flatMap(updated -> this.repository.findVersion(10L)
+                                .map(after -> updated.getVersion() > before.getT2() && after > before.getT1())))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findVersion(99) should not return a version")
+    void findVersion_shouldNotReturnVersion() {
+        this.repository.findVersion(99L)
+                .as(StepVerifier::create)
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("save(department) should move an added Employee out of its previous Department")
+    void save_shouldMoveEmployeeBetweenDepartments() {
+        Department devDepartment = stubbedDevDepartment();
+        devDepartment.setEmployees(List.of(
+                devDepartment.getEmployees().get(0),
+                devDepartment.getEmployees().get(1),
+                stubbedHRDepartment().getEmployees().get(0)));
+
+        this.repository.save(devDepartment)
+                .flatMap(department -> this.repository.findById(stubbedHRDepartment().getId()))
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(List.of(), department.getEmployees()))
+                .verifyComplete();
+    }
+
     @Test
     @DirtiesContext
     @DisplayName("delete(department) should delete a Department")
@@ -105,6 +443,13 @@ class DepartmentRepositoryTest {
                 .verifyComplete();
     }
 
+    private DepartmentRepositoryImpl repositoryWithFetchMode(FetchMode fetchMode) {
+        RepositoryProperties properties = new RepositoryProperties();
+        properties.setFetchMode(fetchMode);
+
+        return new DepartmentRepositoryImpl(this.employeeRepository, this.client, properties);
+    }
+
     private static Stream<Arguments> newDepartmentProvider() {
         Department newDepartmentNameOnly = Department.builder()
                 .name("Accounting")
@@ -144,6 +489,17 @@ class DepartmentRepositoryTest {
         Department employeesUpdatedDepartment = stubbedDevDepartment();
         employeesUpdatedDepartment.setEmployees(stubbedHRDepartment().getEmployees());
 
+        Department employeeAddedDepartment = stubbedDevDepartment();
+        employeeAddedDepartment.setEmployees(List.of(
+                employeeAddedDepartment.getEmployees().get(0),
+                employeeAddedDepartment.getEmployees().get(1),
+                Employee.builder()
+                        .firstName("Sam")
+                        .lastName("Leblanc")
+                        .position("Software Developer")
+                        .fullTime(true)
+                        .build()));
+
         Department removeManagerAndEmployees = stubbedDevDepartment();
         removeManagerAndEmployees.setManager(null);
         removeManagerAndEmployees.setEmployees(List.of());
@@ -152,6 +508,7 @@ class DepartmentRepositoryTest {
                 Arguments.of(nameUpdatedDepartment),
                 Arguments.of(managerUpdatedDepartment),
                 Arguments.of(employeesUpdatedDepartment),
+                Arguments.of(employeeAddedDepartment),
                 Arguments.of(removeManagerAndEmployees)
         );
     }
@@ -206,4 +563,11 @@ class DepartmentRepositoryTest {
                                 .build()))
                 .build();
     }
-}
\ No newline at end of file
+
+    private DepartmentStats stubbedDevDepartmentStats() {
+        return new DepartmentStats(10L, "Software Development", 3, 2, 1, Map.of(
+                "Director of Software Development", 1L,
+                "Software Developer", 1L,
+                "Software Tester", 1L));
+    }
+}
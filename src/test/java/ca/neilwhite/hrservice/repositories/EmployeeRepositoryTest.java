@@ -1,6 +1,7 @@
 package ca.neilwhite.hrservice.repositories;
 
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.EmployeeField;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,11 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import reactor.test.StepVerifier;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataR2dbcTest
@@ -34,6 +40,71 @@ class EmployeeRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DirtiesContext
+    @DisplayName("insertAll() should return Employees with IDs")
+    void insertAll_shouldReturnEmployees() {
+        List<Employee> newEmployees = List.of(
+                Employee.builder().firstName("Jane").lastName("Smith").position("Accountant").fullTime(true).build(),
+                Employee.builder().firstName("John").lastName("Doe").position("Accountant").fullTime(false).build());
+
+        this.repository.insertAll(newEmployees)
+                .concatMap(employee -> this.repository.findById(employee.getId()))
+                .as(StepVerifier::create)
+                .expectNextSequence(newEmployees)
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("updateAll() should update 1 Employee")
+    void updateAll_shouldUpdateEmployees() {
+        Employee updatedEmployee = stubbedEmployee();
+        updatedEmployee.setPosition("Senior Software Developer");
+
+        this.repository.updateAll(List.of(updatedEmployee))
+                .doOnNext(rowsUpdated -> assertEquals(1, rowsUpdated))
+                .then(this.repository.findById(updatedEmployee.getId()))
+                .as(StepVerifier::create)
+                .consumeNextWith(employee -> assertEquals(updatedEmployee, employee))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("updateAll() should not write unchanged Employees")
+    void updateAll_shouldSkipUnchangedEmployees() {
+        this.repository.updateAll(List.of(stubbedEmployee()))
+                .as(StepVerifier::create)
+                .expectNext(0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("update() should return the updated Employee")
+    void update_shouldReturnEmployee() {
+        Employee updatedEmployee = stubbedEmployee();
+        updatedEmployee.setFullTime(false);
+
+        this.repository.update(updatedEmployee.getId(), updatedEmployee.getFirstName(), updatedEmployee.getLastName(),
+                        updatedEmployee.getPosition(), updatedEmployee.isFullTime())
+                .as(StepVerifier::create)
+                .consumeNextWith(employee -> assertEquals(updatedEmployee, employee))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("update() should not return a missing Employee")
+    void update_shouldNotReturnEmployee() {
+        Employee employee = stubbedEmployee();
+
+        this.repository.update(100L, employee.getFirstName(), employee.getLastName(), employee.getPosition(),
+                        employee.isFullTime())
+                .as(StepVerifier::create)
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("findAll() should return 5 Employees")
     void findAll_shouldReturnEmployees() {
@@ -52,6 +123,17 @@ class EmployeeRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("findAllByIds([14, 11, 9]) should return 2 Employees")
+    void findAllByIds_shouldReturnEmployees() {
+        this.repository.findAllByIds(List.of(14L, 11L, 9L))
+                .map(Employee::getId)
+                .collectList()
+                .as(StepVerifier::create)
+                .consumeNextWith(ids -> assertEquals(Set.of(11L, 14L), Set.copyOf(ids)))
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("findById(9) should not return an Employee")
     void findById_shouldNotReturnEmployee() {
@@ -61,6 +143,44 @@ class EmployeeRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("search(\"white\") should return Neil White")
+    void search_shouldReturnMatchingEmployee() {
+        this.repository.search("white", 20, 0)
+                .as(StepVerifier::create)
+                .consumeNextWith(employee -> assertEquals(stubbedEmployee(), employee))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("search(\"softwre\") should return the 3 Employees working in software")
+    void search_shouldReturnSimilarEmployees() {
+        this.repository.search("softwre", 20, 0)
+                .map(Employee::getId)
+                .as(StepVerifier::create)
+                .expectNext(10L, 11L, 12L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("search(\"software\", 1, 1) should return the second match")
+    void search_shouldReturnPage() {
+        this.repository.search("software", 1, 1)
+                .map(Employee::getId)
+                .as(StepVerifier::create)
+                .expectNext(11L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("search(\"100%\") should not treat % as a wildcard")
+    void search_shouldEscapeWildcards() {
+        this.repository.search("100%", 20, 0)
+                .as(StepVerifier::create)
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("findAllByPosition(\"Software Developer\") should return an Employee")
     void findAllByPosition_shouldReturnEmployee() {
@@ -115,6 +235,42 @@ class EmployeeRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("findAll(null, null, 10, 1) should return the Employee after 10")
+    void findAllAfter_shouldReturnEmployee() {
+        this.repository.findAll(null, null, 10L, 1)
+                .as(StepVerifier::create)
+                .consumeNextWith(employee -> assertEquals(stubbedEmployee(), employee))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAll(null, true, 11, null) should return 2 Employees")
+    void findAllFullTimeAfter_shouldReturnEmployees() {
+        this.repository.findAll(null, true, 11L, null)
+                .as(StepVerifier::create)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAll([id, firstName], null, null, 10, 1) should return the id and first name of the Employee after 10")
+    void findAllFields_shouldReturnRequestedFields() {
+        this.repository.findAll(EnumSet.of(EmployeeField.ID, EmployeeField.FIRST_NAME), null, null, 10L, 1)
+                .as(StepVerifier::create)
+                .expectNext(Map.of("id", 11L, "firstName", "Neil"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAll(\"Software Developer\", true, null, null) should return an Employee")
+    void findAllByPositionAndFullTime_shouldReturnEmployee() {
+        this.repository.findAll("Software Developer", true, null, null)
+                .as(StepVerifier::create)
+                .consumeNextWith(employee -> assertEquals(stubbedEmployee(), employee))
+                .verifyComplete();
+    }
+
     private Employee stubbedEmployee() {
         return Employee.builder()
                 .id(11L)
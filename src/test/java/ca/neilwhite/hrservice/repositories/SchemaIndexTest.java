@@ -0,0 +1,92 @@
+package ca.neilwhite.hrservice.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that repository queries can be served by the indexes in schema.sql. Each query is explained exactly as the
+ * repository sends it, with representative values bound to its parameters. The test tables are too small for the
+ * planner to prefer an index on its own, so sequential scans are disabled for the explaining transaction.
+ */
+@DataR2dbcTest
+@Testcontainers
+class SchemaIndexTest {
+    private static final String COLUMNS = "id, first_name, last_name, position, is_full_time";
+
+    @Autowired
+    private DatabaseClient client;
+    @Autowired
+    private TransactionalOperator transactions;
+
+    @Test
+    @DisplayName("findAll(position, true, ...) should use employees_position_idx")
+    void findAllByPositionAndFullTime_shouldUsePositionIndex() {
+        assertUsesIndex("employees_position_idx",
+                EmployeeRepositoryCustomImpl.findAllQuery(COLUMNS, true, true, true),
+                Map.of("after", 0L, "position", "Software Developer", "isFullTime", true, "limit", 100));
+    }
+
+    @Test
+    @DisplayName("findAll(null, false, ...) should use employees_part_time_idx")
+    void findAllPartTime_shouldUsePartTimeIndex() {
+        assertUsesIndex("employees_part_time_idx",
+                EmployeeRepositoryCustomImpl.findAllQuery(COLUMNS, false, true, true),
+                Map.of("after", 0L, "isFullTime", false, "limit", 100));
+    }
+
+    @Test
+    @DisplayName("findDepartmentEmployees() should use department_employees_pkey")
+    void findDepartmentEmployees_shouldUseJoinTableKey() {
+        assertUsesIndex("department_employees_pkey",
+                String.format(DepartmentRepositoryImpl.DEPARTMENT_EMPLOYEES_QUERY, ""),
+                Map.of("id", 10L));
+    }
+
+    @Test
+    @DisplayName("findAll() members should use department_employees_pkey")
+    void findAllMembers_shouldUseJoinTableKey() {
+        assertUsesIndex("department_employees_pkey",
+                DepartmentRepositoryImpl.EMPLOYEE_QUERY,
+                Map.of("ids", new Long[]{10L, 20L}));
+    }
+
+    @Test
+    @DisplayName("search() should use employees_search_idx")
+    void search_shouldUseSearchIndex() {
+        assertUsesIndex("employees_search_idx",
+                EmployeeRepositoryCustomImpl.SEARCH_QUERY,
+                Map.of("query", "white", "pattern", "%white%", "limit", 20, "offset", 20L));
+    }
+
+    private void assertUsesIndex(String index, String query, Map<String, Object> parameters) {
+        this.explain(query, parameters)
+                .as(StepVerifier::create)
+                .consumeNextWith(plan -> assertTrue(plan.contains(index), plan))
+                .verifyComplete();
+    }
+
+    private Mono<String> explain(String query, Map<String, Object> parameters) {
+        DatabaseClient.GenericExecuteSpec spec = this.client.sql("EXPLAIN " + query);
+
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+
+        return this.client.sql("ANALYZE").then()
+                .then(this.client.sql("SET LOCAL enable_seqscan = off").then())
+                .then(spec.map((row, metadata) -> row.get(0, String.class)).all().collect(Collectors.joining("\n")))
+                .as(this.transactions::transactional);
+    }
+}
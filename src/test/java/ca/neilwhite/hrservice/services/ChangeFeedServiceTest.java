@@ -0,0 +1,84 @@
+package ca.neilwhite.hrservice.services;
+
+import ca.neilwhite.hrservice.exceptions.ChangesUnavailableException;
+import ca.neilwhite.hrservice.models.ChangeEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+class ChangeFeedServiceTest {
+    private final ChangeFeedService service = new ChangeFeedService(properties(2));
+
+    @Test
+    @DisplayName("getChanges(null) should only return changes published after subscribing")
+    void getChanges_shouldReturnNewChanges() {
+        this.service.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.CREATED, 1L, null);
+
+        this.service.getChanges(null)
+                .as(StepVerifier::create)
+                .then(() -> this.service.publish(ChangeEvent.Entity.DEPARTMENT, ChangeEvent.Type.UPDATED, 10L, null))
+                .expectNextMatches(event -> event.sequence() == 2 && event.entity() == ChangeEvent.Entity.DEPARTMENT)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("getChanges(id) should replay retained changes after the event")
+    void getChanges_shouldReplayChangesSinceEvent() {
+        String first = this.publishAndGetEventId();
+        this.service.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.UPDATED, 1L, null);
+        this.service.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.DELETED, 1L, null);
+
+        this.service.getChanges(first)
+                .as(StepVerifier::create)
+                .expectNextMatches(event -> event.sequence() == 2 && event.type() == ChangeEvent.Type.UPDATED)
+                .expectNextMatches(event -> event.sequence() == 3 && event.type() == ChangeEvent.Type.DELETED)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("getChanges(id) should fail when changes after the event are no longer retained")
+    void getChanges_shouldFailWhenChangesEvicted() {
+        String first = this.publishAndGetEventId();
+        this.service.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.UPDATED, 1L, null);
+        this.service.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.UPDATED, 1L, null);
+        this.service.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.DELETED, 1L, null);
+
+        this.service.getChanges(first)
+                .as(StepVerifier::create)
+                .verifyError(ChangesUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("getChanges(id) should fail for an event from another epoch")
+    void getChanges_shouldFailForOtherEpoch() {
+        String eventId = this.publishAndGetEventId();
+        ChangeFeedService restarted = new ChangeFeedService(properties(2));
+        restarted.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.CREATED, 1L, null);
+        restarted.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.UPDATED, 1L, null);
+
+        restarted.getChanges(eventId)
+                .as(StepVerifier::create)
+                .verifyError(ChangesUnavailableException.class);
+    }
+
+    private String publishAndGetEventId() {
+        AtomicReference<String> eventId = new AtomicReference<>();
+        this.service.getChanges(null)
+                .as(StepVerifier::create)
+                .then(() -> this.service.publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.CREATED, 1L, null))
+                .consumeNextWith(event -> eventId.set(event.eventId()))
+                .thenCancel()
+                .verify();
+        return eventId.get();
+    }
+
+    private static ChangeFeedProperties properties(int historySize) {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setHistorySize(historySize);
+        return properties;
+    }
+}
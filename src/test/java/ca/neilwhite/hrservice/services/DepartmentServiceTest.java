@@ -2,44 +2,72 @@ package ca.neilwhite.hrservice.services;
 
 import ca.neilwhite.hrservice.exceptions.DepartmentAlreadyExistsException;
 import ca.neilwhite.hrservice.exceptions.DepartmentNotFoundException;
+import ca.neilwhite.hrservice.models.ChangeEvent;
 import ca.neilwhite.hrservice.models.Department;
+import ca.neilwhite.hrservice.models.DepartmentStats;
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.OrgChartEntry;
 import ca.neilwhite.hrservice.models.requests.CreateDepartmentRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResult;
+import ca.neilwhite.hrservice.models.responses.BulkImportSummary;
+import ca.neilwhite.hrservice.models.responses.LookupResult;
 import ca.neilwhite.hrservice.repositories.DepartmentRepository;
+import ca.neilwhite.hrservice.repositories.RepositoryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class DepartmentServiceTest {
     @Mock
     private DepartmentRepository repository;
+    @Spy
+    private RepositoryProperties properties = new RepositoryProperties();
+    @Mock
+    private ChangeFeedService changes;
+    @Spy
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry();
     @InjectMocks
     private DepartmentService service;
 
     @Test
-    @DisplayName("getDepartments() should return 2 Departments")
+    @DisplayName("getDepartments(null, null) should return 2 Departments")
     void getDepartments_shouldReturnDepartments() {
-        when(this.repository.findAll()).thenReturn(Flux.fromIterable(List.of(stubbedDevDepartment(), stubbedHRDepartment())));
+        when(this.repository.findAll(isNull(), isNull())).thenReturn(Flux.fromIterable(List.of(stubbedDevDepartment(), stubbedHRDepartment())));
 
-        this.service.getDepartments()
+        this.service.getDepartments(null, null)
                 .as(StepVerifier::create)
                 .expectNextCount(2)
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("getDepartments(1, 1) should return 1 Department")
+    void getDepartmentsPage_shouldReturnDepartments() {
+        when(this.repository.findAll(anyLong(), anyInt())).thenReturn(Flux.just(stubbedHRDepartment()));
+
+        this.service.getDepartments(1L, 1)
+                .as(StepVerifier::create)
+                .consumeNextWith(department -> assertEquals(stubbedHRDepartment(), department))
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("getDepartment(1) should return a Department")
     void getDepartment_shouldReturnDepartment() {
@@ -65,7 +93,8 @@ class DepartmentServiceTest {
     @Test
     @DisplayName("getDepartmentEmployees(1, null) should return 2 Employees")
     void getDepartmentEmployees_shouldReturnEmployees() {
-        when(this.repository.findById(anyLong())).thenReturn(Mono.just(stubbedDevDepartment()));
+        when(this.repository.existsById(anyLong())).thenReturn(Mono.just(true));
+        when(this.repository.findDepartmentEmployees(anyLong(), isNull())).thenReturn(Flux.fromIterable(stubbedDevDepartment().getEmployees()));
 
         this.service.getDepartmentEmployees(1L, null)
                 .as(StepVerifier::create)
@@ -76,7 +105,8 @@ class DepartmentServiceTest {
     @Test
     @DisplayName("getDepartmentEmployees(1, true) should return 1 Employees")
     void getDepartmentEmployees_FullTime_shouldReturnEmployees() {
-        when(this.repository.findById(anyLong())).thenReturn(Mono.just(stubbedDevDepartment()));
+        when(this.repository.existsById(anyLong())).thenReturn(Mono.just(true));
+        when(this.repository.findDepartmentEmployees(anyLong(), eq(true))).thenReturn(Flux.just(stubbedDevDepartment().getEmployees().get(0)));
 
         this.service.getDepartmentEmployees(1L, true)
                 .as(StepVerifier::create)
@@ -87,7 +117,8 @@ class DepartmentServiceTest {
     @Test
     @DisplayName("getDepartmentEmployees(1, false) should return 1 Employees")
     void getDepartmentEmployees_PartTime_shouldReturnEmployees() {
-        when(this.repository.findById(anyLong())).thenReturn(Mono.just(stubbedDevDepartment()));
+        when(this.repository.existsById(anyLong())).thenReturn(Mono.just(true));
+        when(this.repository.findDepartmentEmployees(anyLong(), eq(false))).thenReturn(Flux.just(stubbedDevDepartment().getEmployees().get(1)));
 
         this.service.getDepartmentEmployees(1L, false)
                 .as(StepVerifier::create)
@@ -98,7 +129,7 @@ class DepartmentServiceTest {
     @Test
     @DisplayName("getDepartmentEmployees(3, null) should throw DepartmentNotFoundException")
     void getDepartmentEmployees_shouldThrowDepartmentNotFound() {
-        when(this.repository.findById(anyLong())).thenReturn(Mono.empty());
+        when(this.repository.existsById(anyLong())).thenReturn(Mono.just(false));
 
         this.service.getDepartmentEmployees(3L, null)
                 .as(StepVerifier::create)
@@ -106,6 +137,55 @@ class DepartmentServiceTest {
                 .verify();
     }
 
+    @Test
+    @DisplayName("exportOrgChart() should return the org chart")
+    void exportOrgChart_shouldReturnEntries() {
+        OrgChartEntry entry = new OrgChartEntry(3L, "Accounting", null, null, null, null, null, null);
+
+        when(this.repository.exportOrgChart()).thenReturn(Flux.just(entry));
+
+        this.service.exportOrgChart()
+                .as(StepVerifier::create)
+                .expectNext(entry)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getDepartmentsByIds([3, 1]) should return a result per ID in request order")
+    void getDepartmentsByIds_shouldReturnResultsInRequestOrder() {
+        when(this.repository.findAllByIds(anyCollection())).thenReturn(Flux.just(stubbedDevDepartment()));
+
+        this.service.getDepartmentsByIds(List.of(3L, stubbedDevDepartment().getId()))
+                .as(StepVerifier::create)
+                .expectNext(LookupResult.missing(3L, "Department not found. Id: 3"))
+                .expectNext(LookupResult.found(stubbedDevDepartment().getId(), stubbedDevDepartment()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getDepartmentStats(10) should return the Department's stats")
+    void getDepartmentStats_shouldReturnStats() {
+        DepartmentStats stats = new DepartmentStats(10L, "Software Development", 1, 1, 0, Map.of("Software Developer", 1L));
+
+        when(this.repository.findStats(anyLong())).thenReturn(Mono.just(stats));
+
+        this.service.getDepartmentStats(10L)
+                .as(StepVerifier::create)
+                .expectNext(stats)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getDepartmentStats(3) should throw DepartmentNotFound")
+    void getDepartmentStats_shouldThrowDepartmentNotFound() {
+        when(this.repository.findStats(anyLong())).thenReturn(Mono.empty());
+
+        this.service.getDepartmentStats(3L)
+                .as(StepVerifier::create)
+                .expectError(DepartmentNotFoundException.class)
+                .verify();
+    }
+
     @Test
     @DisplayName("createDepartment(request) should return a Department")
     void createDepartment_shouldReturnDepartment() {
@@ -114,7 +194,6 @@ class DepartmentServiceTest {
                 .name("Accounting")
                 .build();
 
-        when(this.repository.findByName(anyString())).thenReturn(Mono.empty());
         when(this.repository.save(any(Department.class))).thenReturn(Mono.just(accounting));
 
         this.service.createDepartment(new CreateDepartmentRequest("Accounting"))
@@ -126,12 +205,7 @@ class DepartmentServiceTest {
     @Test
     @DisplayName("createDepartment(request) should throw DepartmentAlreadyExistsException")
     void createDepartment_shouldThrowDepartmentAlreadyExists() {
-        Department accounting = Department.builder()
-                .id(3L)
-                .name("Accounting")
-                .build();
-
-        when(this.repository.findByName(anyString())).thenReturn(Mono.just(accounting));
+        when(this.repository.save(any(Department.class))).thenReturn(Mono.empty());
 
         this.service.createDepartment(new CreateDepartmentRequest("Accounting"))
                 .as(StepVerifier::create)
@@ -139,6 +213,25 @@ class DepartmentServiceTest {
                 .verify();
     }
 
+    @Test
+    @DisplayName("importDepartments(departments) should report existing Departments")
+    void importDepartments_shouldReturnResults() {
+        when(this.repository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Department> departments = invocation.getArgument(0);
+            departments.get(0).setId(3L);
+            return Flux.just(departments.get(0));
+        });
+
+        this.service.importDepartments(Flux.just(
+                        Department.builder().name("Accounting").build(),
+                        Department.builder().name("HR").build()))
+                .as(StepVerifier::create)
+                .expectNext(BulkImportResult.imported(0, 3L))
+                .expectNext(BulkImportResult.failed(1, new DepartmentAlreadyExistsException("HR").getMessage()))
+                .consumeNextWith(summary -> assertEquals(1, ((BulkImportSummary) summary).failed()))
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("updateDepartment(1, department) should return an updated Department")
     void updateDepartment_shouldReturnDepartment() {
@@ -154,8 +247,7 @@ class DepartmentServiceTest {
 
         updatedDevDepartment.setManager(manager);
 
-        when(this.repository.findById(anyLong())).thenReturn(Mono.just(stubbedDevDepartment()));
-        when(this.repository.save(any(Department.class))).thenReturn(Mono.just(updatedDevDepartment));
+        when(this.repository.update(any(Department.class))).thenReturn(Mono.just(updatedDevDepartment));
 
         this.service.updateDepartment(1L, updatedDevDepartment)
                 .as(StepVerifier::create)
@@ -166,7 +258,7 @@ class DepartmentServiceTest {
     @Test
     @DisplayName("updateDepartment(3, department) should throw DepartmentNotFoundException")
     void updateDepartment_shouldThrowDepartmentNotFound() {
-        when(this.repository.findById(anyLong())).thenReturn(Mono.empty());
+        when(this.repository.update(any(Department.class))).thenReturn(Mono.empty());
 
         this.service.updateDepartment(3L, stubbedDevDepartment())
                 .as(StepVerifier::create)
@@ -183,6 +275,8 @@ class DepartmentServiceTest {
         this.service.deleteDepartment(stubbedDevDepartment().getId())
                 .as(StepVerifier::create)
                 .verifyComplete();
+
+        verify(this.changes).publish(ChangeEvent.Entity.DEPARTMENT, ChangeEvent.Type.DELETED, stubbedDevDepartment().getId(), null);
     }
 
     @Test
@@ -1,74 +1,161 @@
 package ca.neilwhite.hrservice.services;
 
 import ca.neilwhite.hrservice.exceptions.EmployeeNotFoundException;
+import ca.neilwhite.hrservice.exceptions.UnknownFieldException;
+import ca.neilwhite.hrservice.models.ChangeEvent;
 import ca.neilwhite.hrservice.models.Employee;
+import ca.neilwhite.hrservice.models.EmployeeField;
 import ca.neilwhite.hrservice.models.requests.CreateEmployeeRequest;
+import ca.neilwhite.hrservice.models.responses.BulkImportResult;
+import ca.neilwhite.hrservice.models.responses.BulkImportSummary;
+import ca.neilwhite.hrservice.models.responses.LookupResult;
 import ca.neilwhite.hrservice.repositories.EmployeeRepository;
+import ca.neilwhite.hrservice.repositories.RepositoryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class EmployeeServiceTest {
     @Mock
     private EmployeeRepository repository;
+    @Spy
+    private RepositoryProperties properties = new RepositoryProperties();
+    @Mock
+    private ChangeFeedService changes;
+    @Spy
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry();
     @InjectMocks
     private EmployeeService service;
 
     @Test
-    @DisplayName("getEmployees(null, null) should return 1 Employee")
+    @DisplayName("getEmployees(null, null, null, null) should return 1 Employee")
     void getEmployees_shouldReturnEmployees() {
-        when(this.repository.findAll()).thenReturn(Flux.just(stubbedEmployee()));
+        when(this.repository.findAll(isNull(), isNull(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
 
-        this.service.getEmployees(null, null)
+        this.service.getEmployees(null, null, null, null)
                 .as(StepVerifier::create)
                 .expectNextCount(1)
                 .verifyComplete();
     }
 
     @Test
-    @DisplayName("getEmployees(\"Software Developer\", null) should return 1 Employee")
+    @DisplayName("getEmployees([firstName, id], ...) should read the requested fields")
+    void getEmployeeFields_shouldReadRequestedFields() {
+        when(this.repository.findAll(eq(EnumSet.of(EmployeeField.ID, EmployeeField.FIRST_NAME)), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(Flux.just(Map.of("id", 11L, "firstName", "Neil")));
+
+        this.service.getEmployees(List.of("firstName", "id"), null, null, null, null)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getEmployees([salary], ...) should return UnknownFieldException")
+    void getEmployeeFields_shouldRejectUnknownField() {
+        this.service.getEmployees(List.of("salary"), null, null, null, null)
+                .as(StepVerifier::create)
+                .expectError(UnknownFieldException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("getEmployees(\"Software Developer\", null, null, null) should return 1 Employee")
     void getEmployeesByPosition_shouldReturnEmployees() {
-        when(this.repository.findAllByPosition(anyString())).thenReturn(Flux.just(stubbedEmployee()));
+        when(this.repository.findAll(anyString(), isNull(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
 
-        this.service.getEmployees("Software Developer", null)
+        this.service.getEmployees("Software Developer", null, null, null)
                 .as(StepVerifier::create)
                 .expectNextCount(1)
                 .verifyComplete();
     }
 
     @Test
-    @DisplayName("getEmployees(null, true) should return 1 Employee")
+    @DisplayName("getEmployees(null, true, null, null) should return 1 Employee")
     void getEmployeesByFullTime_shouldReturnEmployees() {
-        when(this.repository.findAllByFullTime(anyBoolean())).thenReturn(Flux.just(stubbedEmployee()));
+        when(this.repository.findAll(isNull(), anyBoolean(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
 
-        this.service.getEmployees(null, true)
+        this.service.getEmployees(null, true, null, null)
                 .as(StepVerifier::create)
                 .expectNextCount(1)
                 .verifyComplete();
     }
 
     @Test
-    @DisplayName("getEmployees(\"Software Developer\", true) should return 1 Employee")
+    @DisplayName("getEmployees(\"Software Developer\", true, null, null) should return 1 Employee")
     void getEmployeesByPositionAndFullTime_shouldReturnEmployees() {
-        when(this.repository.findAllByPositionAndFullTime(anyString(), anyBoolean())).thenReturn(Flux.just(stubbedEmployee()));
+        when(this.repository.findAll(anyString(), anyBoolean(), isNull(), isNull())).thenReturn(Flux.just(stubbedEmployee()));
 
-        this.service.getEmployees("Software Developer", true)
+        this.service.getEmployees("Software Developer", true, null, null)
                 .as(StepVerifier::create)
                 .expectNextCount(1)
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("getEmployees(null, null, 0, 1) should return 1 Employee")
+    void getEmployeesPage_shouldReturnEmployees() {
+        when(this.repository.findAll(isNull(), isNull(), anyLong(), anyInt())).thenReturn(Flux.just(stubbedEmployee()));
+
+        this.service.getEmployees(null, null, 0L, 1)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getEmployeesByIds([2, 1, 2]) should return a result per ID in request order")
+    void getEmployeesByIds_shouldReturnResultsInRequestOrder() {
+        when(this.repository.findAllByIds(anyCollection())).thenReturn(Flux.just(stubbedEmployee()));
+
+        this.service.getEmployeesByIds(List.of(2L, 1L, 2L))
+                .as(StepVerifier::create)
+                .expectNext(LookupResult.missing(2L, "Employee not found. Id: 2"))
+                .expectNext(LookupResult.found(1L, stubbedEmployee()))
+                .expectNext(LookupResult.missing(2L, "Employee not found. Id: 2"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("searchEmployees(\"white\", 20, 0) should return 1 Employee")
+    void searchEmployees_shouldReturnEmployees() {
+        when(this.repository.search(anyString(), anyInt(), anyLong())).thenReturn(Flux.just(stubbedEmployee()));
+
+        this.service.searchEmployees(" white ", 20, 0)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(this.repository).search("white", 20, 0);
+    }
+
+    @Test
+    @DisplayName("searchEmployees(\" \", 20, 0) should return no Employees")
+    void searchEmployees_shouldIgnoreBlankQuery() {
+        this.service.searchEmployees(" ", 20, 0)
+                .as(StepVerifier::create)
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("getEmployee(1) should return an Employee")
     void getEmployee_shouldReturnEmployee() {
@@ -95,6 +182,7 @@ class EmployeeServiceTest {
     @DisplayName("createEmployee(request) should return an Employee")
     void createEmployee_shouldReturnEmployee() {
         Employee newEmployee = Employee.builder()
+                .id(15L)
                 .firstName("Bob")
                 .lastName("Walker")
                 .position("Dog Walker")
@@ -109,6 +197,46 @@ class EmployeeServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("importEmployees(requests) should return a result per request and a summary")
+    void importEmployees_shouldReturnResults() {
+        Employee bob = Employee.builder().id(6L).firstName("Bob").lastName("Walker").position("Dog Walker").build();
+
+        when(this.repository.insertAll(anyList())).thenReturn(Flux.just(bob));
+
+        this.service.importEmployees(Flux.just(
+                        new CreateEmployeeRequest("Bob", "Walker", "Dog Walker", false),
+                        new CreateEmployeeRequest("", "Smith", "Dog Walker", false)))
+                .as(StepVerifier::create)
+                .expectNext(BulkImportResult.imported(0, 6L))
+                .consumeNextWith(result -> assertEquals(1L, ((BulkImportResult) result).index()))
+                .consumeNextWith(summary -> {
+                    assertEquals(1, ((BulkImportSummary) summary).imported());
+                    assertEquals(1, ((BulkImportSummary) summary).failed());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("importEmployees(requests) should retry a failed batch per request")
+    void importEmployees_shouldRetryFailedBatch() {
+        Employee bob = Employee.builder().id(6L).firstName("Bob").lastName("Walker").position("Dog Walker").build();
+
+        when(this.repository.insertAll(anyList())).thenReturn(
+                Flux.error(new IllegalStateException("duplicate key")),
+                Flux.just(bob),
+                Flux.error(new IllegalStateException("duplicate key")));
+
+        this.service.importEmployees(Flux.just(
+                        new CreateEmployeeRequest("Bob", "Walker", "Dog Walker", false),
+                        new CreateEmployeeRequest("Neil", "White", "Software Developer", true)))
+                .as(StepVerifier::create)
+                .expectNext(BulkImportResult.imported(0, 6L))
+                .expectNext(BulkImportResult.failed(1, "duplicate key"))
+                .expectNextMatches(summary -> summary instanceof BulkImportSummary)
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("updateEmployee(1, employee) should return an updated Employee")
     void updateEmployee_shouldReturnEmployee() {
@@ -116,8 +244,7 @@ class EmployeeServiceTest {
 
         updatedEmployee.setFirstName("George");
 
-        when(this.repository.findById(anyLong())).thenReturn(Mono.just(stubbedEmployee()));
-        when(this.repository.save(any(Employee.class))).thenReturn(Mono.just(updatedEmployee));
+        when(this.repository.update(anyLong(), anyString(), anyString(), anyString(), anyBoolean())).thenReturn(Mono.just(updatedEmployee));
 
         this.service.updateEmployee(1L, updatedEmployee)
                 .as(StepVerifier::create)
@@ -128,7 +255,7 @@ class EmployeeServiceTest {
     @Test
     @DisplayName("updateEmployee(2, employee) should throw EmployeeNotFoundException")
     void updateEmployee_shouldThrowEmployeeNotFound() {
-        when(this.repository.findById(anyLong())).thenReturn(Mono.empty());
+        when(this.repository.update(anyLong(), anyString(), anyString(), anyString(), anyBoolean())).thenReturn(Mono.empty());
 
         this.service.updateEmployee(2L, stubbedEmployee())
                 .as(StepVerifier::create)
@@ -145,6 +272,8 @@ class EmployeeServiceTest {
         this.service.deleteEmployee(1L)
                 .as(StepVerifier::create)
                 .verifyComplete();
+
+        verify(this.changes).publish(ChangeEvent.Entity.EMPLOYEE, ChangeEvent.Type.DELETED, 1L, null);
     }
 
     @Test
@@ -0,0 +1,113 @@
+package ca.neilwhite.hrservice.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestCoalescerTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final Sinks.One<String> result = Sinks.one();
+    private final RequestCoalescer<Long, String> coalescer = new RequestCoalescer<>("test", id -> {
+        this.lookups.incrementAndGet();
+        return this.result.asMono();
+    }, this.registry);
+
+    @Test
+    @DisplayName("get(1) should share one pending lookup among concurrent callers")
+    void get_shouldCollapseConcurrentCalls() {
+        StepVerifier first = this.coalescer.get(1L)
+                .as(StepVerifier::create)
+                .expectNext("value")
+                .expectComplete()
+                .verifyLater();
+        StepVerifier second = this.coalescer.get(1L)
+                .as(StepVerifier::create)
+                .expectNext("value")
+                .expectComplete()
+                .verifyLater();
+
+        this.result.tryEmitValue("value");
+        first.verify();
+        second.verify();
+
+        assertEquals(1, this.lookups.get());
+        assertEquals(1.0, this.registry.get("request.coalescer.calls").tag("result", "executed").counter().count());
+        assertEquals(1.0, this.registry.get("request.coalescer.calls").tag("result", "collapsed").counter().count());
+    }
+
+    @Test
+    @DisplayName("get(1) should look up again once the pending lookup completes")
+    void get_shouldNotKeepCompletedLookups() {
+        this.result.tryEmitValue("value");
+
+        this.coalescer.get(1L)
+                .then(this.coalescer.get(1L))
+                .as(StepVerifier::create)
+                .expectNext("value")
+                .verifyComplete();
+
+        assertEquals(2, this.lookups.get());
+    }
+
+    @Test
+    @DisplayName("get(1) should share an empty lookup")
+    void get_shouldShareEmptyLookup() {
+        StepVerifier first = this.coalescer.get(1L)
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verifyLater();
+        StepVerifier second = this.coalescer.get(1L)
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verifyLater();
+
+        this.result.tryEmitEmpty();
+        first.verify();
+        second.verify();
+
+        assertEquals(1, this.lookups.get());
+    }
+
+    @Test
+    @DisplayName("get(1) should not cancel the lookup for other callers when one cancels")
+    void get_shouldNotCancelSharedLookup() {
+        this.coalescer.get(1L)
+                .as(StepVerifier::create)
+                .thenCancel()
+                .verify();
+
+        StepVerifier second = this.coalescer.get(1L)
+                .as(StepVerifier::create)
+                .expectNext("value")
+                .expectComplete()
+                .verifyLater();
+
+        this.result.tryEmitValue("value");
+        second.verify();
+
+        assertEquals(1, this.lookups.get());
+    }
+
+    @Test
+    @DisplayName("get(1) should run the lookup with the Context of the caller that started it")
+    void get_shouldPropagateCallerContext() {
+        RequestCoalescer<Long, String> coalescer = new RequestCoalescer<>("context",
+                id -> Mono.deferContextual(context -> Mono.just(context.get("tenant"))), this.registry);
+
+        coalescer.get(1L)
+                .contextWrite(Context.of("tenant", "hr"))
+                .as(StepVerifier::create)
+                .expectNext("hr")
+                .verifyComplete();
+    }
+}